@@ -2,8 +2,6 @@ package com.task;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 public class ProgrammingTaskApplication {
@@ -11,10 +9,5 @@ public class ProgrammingTaskApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(ProgrammingTaskApplication.class, args);
 	}
-	
-	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
-	}
 
 }
@@ -1,8 +1,16 @@
 package com.task.album;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,40 +22,137 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.task.client.BatchLoader;
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkWriter;
+import com.task.client.NdjsonStreamer;
+import com.task.config.CacheConfig;
 import com.task.exception.ApiResponseNotValidException;
 import com.task.exception.SaveFileException;
+import com.task.persistence.ExportJob;
+import com.task.persistence.SaveJob;
+import com.task.projection.FieldProjector;
+import com.task.projection.Paging;
+import com.task.search.EntitySearch;
+import com.task.search.SearchResult;
+import com.task.storage.LocalEntityReader;
 
 @RestController
 @RequestMapping("/albums")
+@Profile("!reactive")
 public class AlbumController {
 
+	private static final String TOTAL_COUNT = "X-Total-Count";
+
 	@Autowired
 	private AlbumService albumService;
 
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private BatchLoader batchLoader;
+
+	@Autowired
+	private BulkWriter bulkWriter;
+
+	@Autowired
+	private NdjsonStreamer ndjsonStreamer;
+
+	@Autowired
+	private EntitySearch entitySearch;
+
+	@Autowired
+	private FieldProjector fieldProjector;
+
 	@GetMapping(path = "", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<List<Album>> getAlbums() throws ApiResponseNotValidException {
+	public ResponseEntity<?> getAlbums(@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size,
+			@RequestParam(name = "fields", required = false) final Set<String> fields)
+			throws ApiResponseNotValidException, JsonProcessingException {
+
+		List<Album> albums = albumService.getAlbums();
+		List<Album> pageOfAlbums = Paging.slice(albums, page, size);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(TOTAL_COUNT, String.valueOf(albums.size()));
+
+		if (fields == null || fields.isEmpty()) {
+			return response.body(pageOfAlbums);
+		}
+		return response.contentType(MediaType.APPLICATION_JSON).body(fieldProjector.write(pageOfAlbums, fields));
+	}
+
+	@GetMapping(path = "", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<BatchResult<Album>>> getAlbumsByIds(
+			@RequestParam(name = "ids") final List<Integer> ids) {
 
-		return ResponseEntity.ok(albumService.getAlbums());
+		return ResponseEntity.ok(batchLoader.load(CacheConfig.ALBUMS, ids, albumService::getAlbumById,
+				albumService::getAlbums, Album::getId));
+	}
+
+	@PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<BatchResult<Album>>> getAlbumsBatch(@RequestBody final List<Integer> ids) {
+
+		return getAlbumsByIds(ids);
+	}
+
+	@GetMapping(path = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAlbums(final HttpServletRequest request) {
+
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		return ResponseEntity.ok(albumService::streamAlbums);
 	}
 
 	@GetMapping(path = "/{albumId}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Album> getAlbumById(@PathVariable(name = "albumId") final Integer albumId)
+	public ResponseEntity<?> getAlbumById(@PathVariable(name = "albumId") final Integer albumId)
 			throws ApiResponseNotValidException {
-		return ResponseEntity.ok(albumService.getAlbumById(albumId));
+
+		Optional<ResponseEntity<Resource>> stored = localEntityReader.readFresh("albums", albumId);
+		if (stored.isPresent()) {
+			return stored.get();
+		}
+
+		try {
+			return ResponseEntity.ok(albumService.getAlbumById(albumId));
+		} catch (RestClientException e) {
+			return localEntityReader.readStale("albums", albumId).orElseThrow(() -> e);
+		}
 	}
 
 	@GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<List<Album>> getAlbumByTitle(@RequestParam(name = "title") final String title)
-			throws ApiResponseNotValidException {
-		return ResponseEntity.ok(albumService.getAlbumsByTitle(title));
+	public ResponseEntity<List<Album>> getAlbumByTitle(@RequestParam(name = "title") final String title,
+			@RequestParam(name = "match", required = false) final String match,
+			@RequestParam(name = "offset", required = false) final Integer offset,
+			@RequestParam(name = "limit", required = false) final Integer limit) throws ApiResponseNotValidException {
+
+		SearchResult<Album> result = entitySearch.searchAlbums(title, match, offset, limit);
+		return ResponseEntity.ok().header(TOTAL_COUNT, String.valueOf(result.getTotal())).body(result.getItems());
 	}
 
 	@GetMapping(path = "/{albumId}/save", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<Album> saveAlbumById(@PathVariable(name = "albumId") final Integer albumId)
+	public ResponseEntity<Album> saveAlbumById(@PathVariable(name = "albumId") final Integer albumId,
+			@RequestParam(name = "wait", defaultValue = "${persistence.wait-for-durability:false}") final boolean wait)
 			throws ApiResponseNotValidException, SaveFileException {
 
-		return ResponseEntity.ok(albumService.getAndSaveAlbumById(albumId));
+		SaveJob<Album> job = albumService.getAndSaveAlbumById(albumId, wait);
+		URI status = UriComponentsBuilder.fromPath("/saves/{jobId}").build(job.getId());
+
+		return ResponseEntity.status(wait ? HttpStatus.OK : HttpStatus.ACCEPTED).location(status).body(job.getValue());
+	}
+
+	@PostMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ExportJob> exportAlbums() throws ApiResponseNotValidException {
+
+		ExportJob job = albumService.exportAlbums();
+		URI status = UriComponentsBuilder.fromPath("/exports/{jobId}").build(job.getId());
+
+		return ResponseEntity.accepted().location(status).body(job);
 	}
 
 	@PostMapping(path = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -56,6 +161,17 @@ public class AlbumController {
 		return ResponseEntity.ok(albumService.createAlbum(album));
 	}
 
+	@PostMapping(path = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> bulkAlbums(
+			@RequestBody final List<BulkOperation<Album>> operations, final HttpServletRequest request) {
+
+		bulkWriter.checkSize(operations);
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		return ResponseEntity.ok(out -> bulkWriter.write(operations, albumService::createAlbum,
+				albumService::updateAlbum, albumService::deleteAlbumById, Album::getId,
+				result -> ndjsonStreamer.writeLine(result, out)));
+	}
+
 	@PutMapping("/update")
 	public ResponseEntity<Void> updateAlbum(@RequestBody final Album album) {
 		albumService.updateAlbum(album);
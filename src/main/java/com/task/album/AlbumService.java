@@ -1,27 +1,44 @@
 package com.task.album;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.client.NdjsonStreamer;
+import com.task.client.SingleFlight;
+import com.task.client.UpstreamGuard;
+import com.task.config.CacheConfig;
+import com.task.config.HttpClientProperties;
 import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.ErrorMetrics;
 import com.task.exception.SaveFileException;
+import com.task.export.XmlExporter;
+import com.task.persistence.BulkExporter;
+import com.task.persistence.ExportJob;
+import com.task.persistence.PersistencePipeline;
+import com.task.persistence.SaveJob;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.Snapshot;
+import com.task.storage.EntityStore;
+import com.task.storage.LocalEntityReader;
+import com.task.tracing.PhaseTracer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,33 +48,115 @@ public class AlbumService {
 
 	private static final String ERROR_MESSAGE = "Error sending Album API request. Request body is empty.";
 
-	private static final String API_URL = "https://jsonplaceholder.typicode.com";
+	static final String BULKHEAD = "albums";
+
+	static final String LIST_BREAKER = "album-list";
+
+	static final String BY_ID_BREAKER = "album-by-id";
+
+	static final String SEARCH_BREAKER = "album-search";
+
+	static final String WRITE_BREAKER = "album-write";
 
 	@Autowired
 	private RestTemplate restTemplate;
 
+	@Autowired
+	private HttpClientProperties httpClientProperties;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private SingleFlight singleFlight;
+
+	@Autowired
+	private UpstreamGuard upstreamGuard;
+
+	@Autowired
+	private NdjsonStreamer ndjsonStreamer;
+
+	@Autowired
+	private XmlExporter xmlExporter;
+
+	@Autowired
+	private EntityStore entityStore;
+
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private PersistencePipeline persistencePipeline;
+
+	@Autowired
+	private BulkExporter bulkExporter;
+
+	@Autowired
+	private ErrorMetrics errorMetrics;
+
+	@Autowired
+	private PhaseTracer phaseTracer;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
 	/**
-	 * Gets a list of Albums from the JSON Placeholder API.
+	 * Gets a list of Albums from the snapshot, or from the JSON Placeholder API
+	 * when there is none.
 	 *
 	 * @return the Album list
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@Cacheable(cacheNames = CacheConfig.ALBUM_LIST)
 	public List<Album> getAlbums() throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums").build().toUri();
+		Optional<Snapshot<Album>> snapshot = entitySnapshots.getAlbums().current();
+		if (snapshot.isPresent()) {
+			return snapshot.get().getAll();
+		}
+		return fetchAlbums();
+	}
+
+	/**
+	 * Gets a list of Albums from the JSON Placeholder API, bypassing the cache
+	 * and the snapshot.
+	 *
+	 * @return the Album list
+	 * @throws ApiResponseNotValidException if the request body is empty
+	 */
+	public List<Album> fetchAlbums() throws ApiResponseNotValidException {
+
+		URI uri = apiUrl().path("/albums").build().toUri();
 
-		ResponseEntity<Album[]> response = restTemplate.getForEntity(uri, Album[].class);
+		ResponseEntity<Album[]> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, LIST_BREAKER,
+						() -> restTemplate.getForEntity(uri, Album[].class)));
 
 		if (response.hasBody()) {
 			return Arrays.asList(response.getBody());
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("albums", ERROR_MESSAGE);
 		}
 	}
 
+	/**
+	 * Streams the Albums from the JSON Placeholder API as newline delimited
+	 * JSON, writing each Album as soon as it is decoded. The circuit breaker and
+	 * bulkhead only guard the API call up to the response headers, so a slow
+	 * or disconnected client neither holds a bulkhead permit nor counts as an
+	 * API failure.
+	 *
+	 * @param out the stream the Albums are written to
+	 * @throws IOException if the response cannot be read or written
+	 */
+	public void streamAlbums(final OutputStream out) throws IOException {
+
+		URI uri = apiUrl().path("/albums").build().toUri();
+
+		ClientHttpResponse response = upstreamGuard.call(BULKHEAD, LIST_BREAKER, () -> ndjsonStreamer.open(uri));
+		ndjsonStreamer.write(response, Album.class, out);
+	}
+
 	/**
 	 * Gets the Album with the given ID.
 	 *
@@ -65,16 +164,24 @@ public class AlbumService {
 	 * @return the Album with the given ID
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@Cacheable(cacheNames = CacheConfig.ALBUMS)
 	public Album getAlbumById(final Integer albumId) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums/{albumId}").build(albumId);
+		Optional<Album> snapshotted = entitySnapshots.getAlbums().find(albumId);
+		if (snapshotted.isPresent()) {
+			return snapshotted.get();
+		}
+
+		URI uri = apiUrl().path("/albums/{albumId}").build(albumId);
 
-		ResponseEntity<Album> response = restTemplate.getForEntity(uri, Album.class);
+		ResponseEntity<Album> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, BY_ID_BREAKER,
+						() -> restTemplate.getForEntity(uri, Album.class)));
 
 		if (response.hasBody()) {
 			return response.getBody();
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("albums", ERROR_MESSAGE);
 		}
 
 	}
@@ -88,14 +195,16 @@ public class AlbumService {
 	 */
 	public List<Album> getAlbumsByTitle(final String title) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums").queryParam("title", title).build().toUri();
+		URI uri = apiUrl().path("/albums").queryParam("title", title).build().toUri();
 
-		ResponseEntity<Album[]> response = restTemplate.getForEntity(uri, Album[].class);
+		ResponseEntity<Album[]> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, SEARCH_BREAKER,
+						() -> restTemplate.getForEntity(uri, Album[].class)));
 
 		if (response.hasBody()) {
 			return Arrays.asList(response.getBody());
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("albums", ERROR_MESSAGE);
 		}
 
 	}
@@ -107,16 +216,20 @@ public class AlbumService {
 	 * @return the created Album
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@CacheEvict(cacheNames = CacheConfig.ALBUM_LIST, allEntries = true)
 	public Album createAlbum(final Album album) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums").build().toUri();
+		URI uri = apiUrl().path("/albums").build().toUri();
+
+		ResponseEntity<Album> response = upstreamGuard.call(BULKHEAD, WRITE_BREAKER,
+				() -> restTemplate.postForEntity(uri, album, Album.class));
 
-		ResponseEntity<Album> response = restTemplate.postForEntity(uri, album, Album.class);
+		entitySnapshots.getAlbums().invalidate();
 
 		if (response.hasBody()) {
 			return album;
 		} else {
-			throw new ApiResponseNotValidException("Error sending create Album API request. Request body is empty.");
+			throw errorMetrics.emptyBody("albums", "Error sending create Album API request. Request body is empty.");
 		}
 
 	}
@@ -126,11 +239,16 @@ public class AlbumService {
 	 *
 	 * @param album the Album
 	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.ALBUMS, key = "#album.id"),
+			@CacheEvict(cacheNames = CacheConfig.ALBUM_LIST, allEntries = true) })
 	public void updateAlbum(final Album album) {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums/{id}").build(album.getId());
+		URI uri = apiUrl().path("/albums/{id}").build(album.getId());
+
+		upstreamGuard.run(BULKHEAD, WRITE_BREAKER, () -> restTemplate.put(uri, album));
 
-		restTemplate.put(uri, album);
+		localEntityReader.invalidate("albums", album.getId());
+		entitySnapshots.getAlbums().invalidate();
 
 	}
 
@@ -139,25 +257,88 @@ public class AlbumService {
 	 *
 	 * @param albumId the album ID
 	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.ALBUMS, key = "#albumId"),
+			@CacheEvict(cacheNames = CacheConfig.ALBUM_LIST, allEntries = true) })
 	public void deleteAlbumById(final Integer albumId) {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/albums/{albumId}").build(albumId);
+		URI uri = apiUrl().path("/albums/{albumId}").build(albumId);
+
+		upstreamGuard.run(BULKHEAD, WRITE_BREAKER, () -> restTemplate.delete(uri));
+
+		localEntityReader.invalidate("albums", albumId);
+		entitySnapshots.getAlbums().invalidate();
 
-		restTemplate.delete(uri);
+	}
 
+	/**
+	 * Drops the cached Album list and the Album snapshot after a Album was
+	 * created through the reactive stack.
+	 */
+	@CacheEvict(cacheNames = CacheConfig.ALBUM_LIST, allEntries = true)
+	public void invalidateAlbums() {
+		entitySnapshots.getAlbums().invalidate();
 	}
 
 	/**
-	 * Gets the Album with the given ID and saves it in JSON and XML format.
+	 * Drops the cached Album, the cached Album list, the stored Album and
+	 * the Album snapshot after a Album was updated or deleted through the
+	 * reactive stack.
 	 *
-	 * @param albumID the album ID
-	 * @return the saved Album
+	 * @param albumId the album ID
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.ALBUMS, key = "#albumId"),
+			@CacheEvict(cacheNames = CacheConfig.ALBUM_LIST, allEntries = true) })
+	public void invalidateAlbum(final Integer albumId) {
+		localEntityReader.invalidate("albums", albumId);
+		entitySnapshots.getAlbums().invalidate();
+	}
+
+	/**
+	 * Gets the Album with the given ID and queues it to be saved in JSON and XML
+	 * format by the persistence pipeline.
+	 *
+	 * @param albumId             the album ID
+	 * @param waitForDurability whether to wait until the files are written
+	 * @return the save job
 	 * @throws ApiResponseNotValidException if the request body is empty
-	 * @throws SaveFileException            if the files are not saved correctly
+	 * @throws SaveFileException            if the save is rejected, or the files
+	 *                                      are not written correctly while waiting
 	 */
-	public Album getAndSaveAlbumById(final Integer albumId) throws ApiResponseNotValidException, SaveFileException {
+	public SaveJob<Album> getAndSaveAlbumById(final Integer albumId, final boolean waitForDurability)
+			throws ApiResponseNotValidException, SaveFileException {
 
-		Album album = getAlbumById(albumId);
+		Album album = phaseTracer.trace("album.fetch", () -> getAlbumById(albumId));
+
+		SaveJob<Album> job = persistencePipeline.submit("Album with ID: " + album.getId(), album,
+				phaseTracer.inCurrentTrace("album.save", () -> saveAlbum(album)));
+
+		if (waitForDurability) {
+			persistencePipeline.await(job);
+		}
+
+		return job;
+	}
+
+	/**
+	 * Fetches all the Albums once and starts writing each of them in JSON and
+	 * XML format in parallel.
+	 *
+	 * @return the running export
+	 * @throws ApiResponseNotValidException if the request body is empty
+	 */
+	public ExportJob exportAlbums() throws ApiResponseNotValidException {
+
+		return bulkExporter.start("Albums", getAlbums(), this::saveAlbum);
+	}
+
+	/**
+	 * Saves the Album in JSON and XML format.
+	 *
+	 * @param album the Album
+	 * @return the saved Album
+	 * @throws SaveFileException if the files are not saved correctly
+	 */
+	public Album saveAlbum(final Album album) throws SaveFileException {
 
 		saveAlbumToJsonFile(album);
 
@@ -176,11 +357,12 @@ public class AlbumService {
 
 		try {
 
-			Path path = Paths.get("src/main/resources/albums/json/" + album.getId() + ".json");
-			Files.writeString(path, objectMapper.writeValueAsString(album));
+			byte[] json = phaseTracer.trace("album.json.serialize",
+					() -> objectMapper.writeValueAsString(album).getBytes(StandardCharsets.UTF_8));
+			phaseTracer.trace("album.json.write", () -> entityStore.write("albums", album.getId(), "json", json));
 			log.info("Saved Album with ID: {} to JSON file", album.getId());
 		} catch (IOException e) {
-			throw new SaveFileException("Error saving Album JSON file", e);
+			throw errorMetrics.saveFailed("albums", "json", "Error saving Album JSON file", e);
 
 		}
 	}
@@ -194,14 +376,15 @@ public class AlbumService {
 	private void saveAlbumToXmlFile(final Album album) throws SaveFileException {
 		try {
 
-			JAXBContext context = JAXBContext.newInstance(Album.class);
-			Marshaller mar = context.createMarshaller();
-			mar.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			mar.marshal(album, new File("src/main/resources/albums/xml/" + album.getId() + ".xml"));
+			byte[] xml = phaseTracer.trace("album.xml.marshal", () -> xmlExporter.export(album));
+			phaseTracer.trace("album.xml.write", () -> entityStore.write("albums", album.getId(), "xml", xml));
 			log.info("Saved Album with ID: {} to XML file", album.getId());
-		} catch (JAXBException e) {
-			throw new SaveFileException("Error saving Album XML file", e);
+		} catch (JAXBException | IOException e) {
+			throw errorMetrics.saveFailed("albums", "xml", "Error saving Album XML file", e);
 		}
 	}
 
+	private UriComponentsBuilder apiUrl() {
+		return UriComponentsBuilder.fromHttpUrl(httpClientProperties.getBaseUrl());
+	}
 }
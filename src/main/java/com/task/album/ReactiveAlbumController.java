@@ -0,0 +1,150 @@
+package com.task.album;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkResult;
+import com.task.exception.UpstreamUnavailableException;
+import com.task.persistence.ExportJob;
+import com.task.projection.FieldProjector;
+import com.task.projection.Paging;
+import com.task.search.EntitySearch;
+import com.task.storage.LocalEntityReader;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/albums")
+@Profile("reactive")
+public class ReactiveAlbumController {
+
+	private static final String TOTAL_COUNT = "X-Total-Count";
+
+	@Autowired
+	private ReactiveAlbumService albumService;
+
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private EntitySearch entitySearch;
+
+	@Autowired
+	private FieldProjector fieldProjector;
+
+	@GetMapping(path = "", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<Album> getAlbums(@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size) {
+
+		return Paging.slice(albumService.getAlbums(), page, size);
+	}
+
+	@GetMapping(path = "", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<byte[]>> getAlbumsProjected(
+			@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size,
+			@RequestParam(name = "fields") final Set<String> fields) {
+
+		return Paging.slice(albumService.getAlbums(), page, size).collectList()
+				.flatMap(albums -> Mono.fromCallable(() -> fieldProjector.write(albums, fields)))
+				.map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json));
+	}
+
+	@GetMapping(path = "", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<BatchResult<Album>> getAlbumsByIds(@RequestParam(name = "ids") final List<Integer> ids) {
+
+		return albumService.getAlbumsByIds(ids);
+	}
+
+	@PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<BatchResult<Album>> getAlbumsBatch(@RequestBody final List<Integer> ids) {
+
+		return albumService.getAlbumsByIds(ids);
+	}
+
+	@GetMapping(path = "/{albumId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> getAlbumById(@PathVariable(name = "albumId") final Integer albumId) {
+
+		Mono<ResponseEntity<?>> upstream = albumService.getAlbumById(albumId).<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(e -> e instanceof WebClientException || e instanceof UpstreamUnavailableException,
+						e -> findStored(() -> localEntityReader.readStale("albums", albumId))
+								.switchIfEmpty(Mono.error(e)));
+
+		return findStored(() -> localEntityReader.readFresh("albums", albumId)).switchIfEmpty(upstream);
+	}
+
+	@GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<List<Album>>> getAlbumByTitle(@RequestParam(name = "title") final String title,
+			@RequestParam(name = "match", required = false) final String match,
+			@RequestParam(name = "offset", required = false) final Integer offset,
+			@RequestParam(name = "limit", required = false) final Integer limit) {
+
+		return Mono.fromCallable(() -> entitySearch.searchAlbums(title, match, offset, limit))
+				.subscribeOn(Schedulers.boundedElastic()).map(result -> ResponseEntity.ok()
+						.header(TOTAL_COUNT, String.valueOf(result.getTotal())).body(result.getItems()));
+	}
+
+	@GetMapping(path = "/{albumId}/save", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Album>> saveAlbumById(@PathVariable(name = "albumId") final Integer albumId) {
+
+		return albumService.getAndSaveAlbumById(albumId).map(ResponseEntity::ok);
+	}
+
+	@PostMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<ExportJob>> exportAlbums() {
+
+		return albumService.exportAlbums().map(job -> ResponseEntity.accepted()
+				.location(UriComponentsBuilder.fromPath("/exports/{jobId}").build(job.getId())).body(job));
+	}
+
+	@PostMapping(path = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Album>> createAlbum(@RequestBody final Album album) {
+
+		return albumService.createAlbum(album).map(ResponseEntity::ok);
+	}
+
+	@PostMapping(path = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<BulkResult<Album>> bulkAlbums(@RequestBody final List<BulkOperation<Album>> operations) {
+
+		return albumService.bulkAlbums(operations);
+	}
+
+	@PutMapping("/update")
+	public Mono<ResponseEntity<Void>> updateAlbum(@RequestBody final Album album) {
+		return albumService.updateAlbum(album).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+	}
+
+	@DeleteMapping("/{albumId}/delete")
+	public Mono<ResponseEntity<Void>> deleteAlbum(@PathVariable(name = "albumId") final Integer albumId) {
+		return albumService.deleteAlbumById(albumId).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+	}
+
+	private Mono<ResponseEntity<?>> findStored(final Supplier<Optional<ResponseEntity<Resource>>> lookup) {
+		return Mono.<ResponseEntity<?>>fromCallable(() -> lookup.get().orElse(null))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+}
@@ -0,0 +1,208 @@
+package com.task.album;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.task.client.BatchLoader;
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkResult;
+import com.task.client.BulkWriter;
+import com.task.client.UpstreamGuard;
+import com.task.exception.ErrorMetrics;
+import com.task.persistence.BulkExporter;
+import com.task.persistence.ExportJob;
+import com.task.snapshot.EntitySnapshots;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Profile("reactive")
+public class ReactiveAlbumService {
+
+	private static final String ERROR_MESSAGE = "Error sending Album API request. Request body is empty.";
+
+	@Autowired
+	private WebClient upstreamWebClient;
+
+	@Autowired
+	private UpstreamGuard upstreamGuard;
+
+	@Autowired
+	private AlbumService albumService;
+
+	@Autowired
+	private BulkExporter bulkExporter;
+
+	@Autowired
+	private ErrorMetrics errorMetrics;
+
+	@Autowired
+	private BatchLoader batchLoader;
+
+	@Autowired
+	private BulkWriter bulkWriter;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
+	/**
+	 * Gets the Albums from the snapshot, or from the JSON Placeholder API
+	 * without blocking when there is none.
+	 *
+	 * @return the Albums
+	 */
+	public Flux<Album> getAlbums() {
+
+		return Flux.defer(() -> entitySnapshots.getAlbums().current()
+				.map(snapshot -> Flux.fromIterable(snapshot.getAll()))
+				.orElseGet(() -> upstreamGuard.read(AlbumService.BULKHEAD, AlbumService.LIST_BREAKER,
+						upstreamWebClient.get().uri("/albums").retrieve().bodyToFlux(Album.class))));
+	}
+
+	/**
+	 * Gets the Album with the given ID from the snapshot, or from the JSON
+	 * Placeholder API without blocking when the snapshot does not have it.
+	 *
+	 * @param albumId the Album ID
+	 * @return the Album with the given ID, or an ApiResponseNotValidException if
+	 *         the response body is empty, which the JSON decoder reports as a
+	 *         DecodingException
+	 */
+	public Mono<Album> getAlbumById(final Integer albumId) {
+
+		return Mono.defer(() -> entitySnapshots.getAlbums().find(albumId).map(Mono::just)
+				.orElseGet(() -> fetchAlbumById(albumId)));
+	}
+
+	private Mono<Album> fetchAlbumById(final Integer albumId) {
+		return upstreamGuard.read(AlbumService.BULKHEAD, AlbumService.BY_ID_BREAKER,
+				upstreamWebClient.get().uri("/albums/{albumId}", albumId).retrieve().bodyToMono(Album.class))
+				.onErrorMap(DecodingException.class, e -> errorMetrics.emptyBody("albums", ERROR_MESSAGE))
+				.switchIfEmpty(Mono.error(() -> errorMetrics.emptyBody("albums", ERROR_MESSAGE)));
+	}
+
+	/**
+	 * Gets the Albums with the given IDs without blocking, with at most
+	 * <code>batch.parallelism</code> upstream calls at the same time, or one
+	 * collection fetch for large batches.
+	 *
+	 * @param ids the Album IDs
+	 * @return one result per ID, in request order
+	 */
+	public Flux<BatchResult<Album>> getAlbumsByIds(final List<Integer> ids) {
+
+		return batchLoader.loadReactive(ids, this::getAlbumById, this::getAlbums, Album::getId);
+	}
+
+	/**
+	 * Gets the Albums with the given title without blocking.
+	 *
+	 * @param title the title
+	 * @return the Albums with the given title
+	 */
+	public Flux<Album> getAlbumsByTitle(final String title) {
+
+		return upstreamGuard.read(AlbumService.BULKHEAD, AlbumService.SEARCH_BREAKER, upstreamWebClient.get()
+				.uri(uriBuilder -> uriBuilder.path("/albums").queryParam("title", title).build()).retrieve()
+				.bodyToFlux(Album.class));
+	}
+
+	/**
+	 * Creates an Album without blocking.
+	 *
+	 * @param album the Album
+	 * @return the created Album, or an ApiResponseNotValidException if the
+	 *         response body is empty
+	 */
+	public Mono<Album> createAlbum(final Album album) {
+
+		return upstreamGuard.call(AlbumService.BULKHEAD, AlbumService.WRITE_BREAKER,
+				upstreamWebClient.post().uri("/albums").bodyValue(album).retrieve().bodyToMono(Album.class))
+				.map(created -> album)
+				.onErrorMap(DecodingException.class, e -> errorMetrics.emptyBody("albums", ERROR_MESSAGE))
+				.switchIfEmpty(Mono.error(() -> errorMetrics.emptyBody("albums", ERROR_MESSAGE)))
+				.flatMap(created -> invalidated(albumService::invalidateAlbums).thenReturn(created));
+	}
+
+	/**
+	 * Updates an Album without blocking.
+	 *
+	 * @param album the Album
+	 * @return completion signal
+	 */
+	public Mono<Void> updateAlbum(final Album album) {
+
+		return upstreamGuard.call(AlbumService.BULKHEAD, AlbumService.WRITE_BREAKER,
+				upstreamWebClient.put().uri("/albums/{id}", album.getId()).bodyValue(album).retrieve()
+						.toBodilessEntity())
+				.then(invalidated(() -> albumService.invalidateAlbum(album.getId())));
+	}
+
+	/**
+	 * Deletes an Album without blocking.
+	 *
+	 * @param albumId the album ID
+	 * @return completion signal
+	 */
+	public Mono<Void> deleteAlbumById(final Integer albumId) {
+
+		return upstreamGuard.call(AlbumService.BULKHEAD, AlbumService.WRITE_BREAKER,
+				upstreamWebClient.delete().uri("/albums/{albumId}", albumId).retrieve().toBodilessEntity())
+				.then(invalidated(() -> albumService.invalidateAlbum(albumId)));
+	}
+
+	/**
+	 * Runs a bulk write of Albums without blocking, with at most
+	 * <code>batch.write-parallelism</code> upstream calls at the same time.
+	 *
+	 * @param operations the creates, updates and deletes
+	 * @return the result of every operation as it completes
+	 */
+	public Flux<BulkResult<Album>> bulkAlbums(final List<BulkOperation<Album>> operations) {
+
+		return bulkWriter.writeReactive(operations, this::createAlbum, this::updateAlbum, this::deleteAlbumById,
+				Album::getId);
+	}
+
+	/**
+	 * Gets the Album with the given ID and saves it in JSON and XML format. The
+	 * file writes are blocking, so they run on the bounded elastic scheduler.
+	 *
+	 * @param albumId the album ID
+	 * @return the saved Album
+	 */
+	public Mono<Album> getAndSaveAlbumById(final Integer albumId) {
+
+		return getAlbumById(albumId).flatMap(album -> Mono.fromCallable(() -> albumService.saveAlbum(album))
+				.subscribeOn(Schedulers.boundedElastic()));
+	}
+
+	/**
+	 * Fetches all the Albums without blocking and starts writing each of them in
+	 * JSON and XML format in parallel.
+	 *
+	 * @return the running export
+	 */
+	public Mono<ExportJob> exportAlbums() {
+
+		return getAlbums().collectList().map(albums -> bulkExporter.start("Albums", albums, albumService::saveAlbum));
+	}
+
+	/**
+	 * Drops the cached and snapshotted Albums shared with the blocking stack
+	 * once a write succeeded. Only in-memory state is touched, so it runs on
+	 * the thread that completed the write.
+	 */
+	private Mono<Void> invalidated(final Runnable invalidation) {
+		return Mono.fromRunnable(invalidation);
+	}
+
+}
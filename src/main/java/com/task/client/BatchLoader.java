@@ -0,0 +1,222 @@
+package com.task.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.task.config.BatchProperties;
+import com.task.config.WorkerThreads;
+import com.task.exception.ApiResponseNotValidException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves a batch of entity IDs in one request. The IDs found in the entity
+ * cache are answered from it; the missing ones are read on a pool of
+ * <code>batch.fetchers</code> threads shared by all the batches, with at most
+ * <code>batch.parallelism</code> upstream calls at the same time per batch so
+ * a large batch cannot hold the whole pool, or with one collection fetch when
+ * at least <code>batch.collection-threshold</code> of them are missing. The
+ * results keep the request order and a failed ID does not fail the others.
+ */
+public class BatchLoader {
+
+	static final String NOT_FOUND = "Not found";
+
+	private final BatchProperties properties;
+
+	private final CacheManager cacheManager;
+
+	private final ExecutorService fetchers;
+
+	public BatchLoader(final BatchProperties properties, final CacheManager cacheManager) {
+		this(properties, cacheManager, WorkerThreads.pool("batch", properties.getFetchers()));
+	}
+
+	public BatchLoader(final BatchProperties properties, final CacheManager cacheManager,
+			final ExecutorService fetchers) {
+
+		this.properties = properties;
+		this.cacheManager = cacheManager;
+		this.fetchers = fetchers;
+	}
+
+	/**
+	 * Resolves the given IDs through the blocking client.
+	 *
+	 * @param <T>       the entity type
+	 * @param cacheName the entity cache checked before calling the API
+	 * @param ids       the requested IDs
+	 * @param byId      the read of one entity
+	 * @param all       the read of the whole collection
+	 * @param idOf      the ID of an entity
+	 * @return one result per requested ID, in request order
+	 * @throws IllegalArgumentException if more than <code>batch.max-ids</code>
+	 *                                  IDs or an empty ID are requested
+	 */
+	public <T> List<BatchResult<T>> load(final String cacheName, final List<Integer> ids, final EntityLookup<T> byId,
+			final CollectionLookup<T> all, final Function<T, Integer> idOf) {
+
+		checkIds(ids);
+
+		Map<Integer, BatchResult<T>> results = new LinkedHashMap<>();
+		List<Integer> missing = new ArrayList<>();
+		Cache cache = cacheManager.getCache(cacheName);
+
+		for (Integer id : distinct(ids)) {
+			Cache.ValueWrapper cached = cache == null ? null : cache.get(id);
+			if (cached != null && cached.get() != null) {
+				@SuppressWarnings("unchecked")
+				T value = (T) cached.get();
+				results.put(id, BatchResult.found(id, value));
+			} else {
+				missing.add(id);
+			}
+		}
+
+		if (missing.size() >= properties.getCollectionThreshold()) {
+			results.putAll(fetchCollection(missing, all, idOf));
+		} else if (!missing.isEmpty()) {
+			fetchEach(missing, byId).forEach(result -> results.put(result.getId(), result));
+		}
+
+		return ids.stream().map(results::get).collect(Collectors.toList());
+	}
+
+	/**
+	 * Resolves the given IDs through the non-blocking client.
+	 *
+	 * @param <T>  the entity type
+	 * @param ids  the requested IDs
+	 * @param byId the read of one entity
+	 * @param all  the read of the whole collection
+	 * @param idOf the ID of an entity
+	 * @return one result per requested ID, in request order, or an
+	 *         IllegalArgumentException if more than <code>batch.max-ids</code>
+	 *         IDs or an empty ID are requested
+	 */
+	public <T> Flux<BatchResult<T>> loadReactive(final List<Integer> ids, final Function<Integer, Mono<T>> byId,
+			final Supplier<Flux<T>> all, final Function<T, Integer> idOf) {
+
+		try {
+			checkIds(ids);
+		} catch (IllegalArgumentException e) {
+			return Flux.error(e);
+		}
+
+		List<Integer> distinct = distinct(ids);
+		Mono<Map<Integer, BatchResult<T>>> results;
+
+		if (distinct.size() >= properties.getCollectionThreshold()) {
+			results = all.get().collectMap(idOf).map(entities -> index(distinct, entities))
+					.onErrorResume(e -> Mono.just(failAll(distinct, e)));
+		} else {
+			results = Flux.fromIterable(distinct)
+					.flatMap(id -> byId.apply(id).map(value -> BatchResult.found(id, value))
+							.onErrorResume(e -> Mono.just(BatchResult.failed(id, describe(e)))),
+							properties.getParallelism())
+					.collectMap(BatchResult::getId);
+		}
+
+		return results.flatMapIterable(index -> ids.stream().map(index::get).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Stops the fetcher threads.
+	 */
+	public void shutdown() throws InterruptedException {
+		fetchers.shutdown();
+		if (!fetchers.awaitTermination(30, TimeUnit.SECONDS)) {
+			fetchers.shutdownNow();
+		}
+	}
+
+	private void checkIds(final List<Integer> ids) {
+		if (ids.size() > properties.getMaxIds()) {
+			throw new IllegalArgumentException("A batch can request at most " + properties.getMaxIds() + " IDs.");
+		}
+		if (ids.stream().anyMatch(Objects::isNull)) {
+			throw new IllegalArgumentException("A batch cannot request an empty ID.");
+		}
+	}
+
+	/**
+	 * Fetches the IDs one by one on the shared fetchers, submitting the next
+	 * fetch only while fewer than <code>batch.parallelism</code> of this batch
+	 * are running.
+	 */
+	private <T> List<BatchResult<T>> fetchEach(final List<Integer> ids, final EntityLookup<T> byId) {
+
+		Semaphore permits = new Semaphore(properties.getParallelism());
+		List<CompletableFuture<BatchResult<T>>> fetches = new ArrayList<>(ids.size());
+		try {
+			for (Integer id : ids) {
+				permits.acquire();
+				fetches.add(CompletableFuture.supplyAsync(() -> fetchOne(id, byId), fetchers)
+						.whenComplete((result, e) -> permits.release()));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while fetching the batch", e);
+		}
+		return fetches.stream().map(CompletableFuture::join).collect(Collectors.toList());
+	}
+
+	private <T> Map<Integer, BatchResult<T>> fetchCollection(final List<Integer> ids, final CollectionLookup<T> all,
+			final Function<T, Integer> idOf) {
+
+		try {
+			Map<Integer, T> index = all.get().stream()
+					.collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+			return index(ids, index);
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			return failAll(ids, e);
+		}
+	}
+
+	private <T> BatchResult<T> fetchOne(final Integer id, final EntityLookup<T> byId) {
+		try {
+			return BatchResult.found(id, byId.get(id));
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			return BatchResult.failed(id, describe(e));
+		}
+	}
+
+	private static <T> Map<Integer, BatchResult<T>> index(final List<Integer> ids, final Map<Integer, T> entities) {
+		return ids.stream().collect(Collectors.toMap(Function.identity(),
+				id -> entities.containsKey(id) ? BatchResult.found(id, entities.get(id))
+						: BatchResult.failed(id, NOT_FOUND)));
+	}
+
+	private static <T> Map<Integer, BatchResult<T>> failAll(final List<Integer> ids, final Throwable e) {
+		String error = describe(e);
+		return ids.stream().collect(Collectors.toMap(Function.identity(), id -> BatchResult.failed(id, error)));
+	}
+
+	private static String describe(final Throwable e) {
+		if (e instanceof HttpClientErrorException.NotFound || e instanceof WebClientResponseException.NotFound) {
+			return NOT_FOUND;
+		}
+		return e.getMessage();
+	}
+
+	private static List<Integer> distinct(final List<Integer> ids) {
+		return ids.stream().distinct().collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.task.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Value;
+
+/**
+ * Result of one ID of a batch GET: the entity, or the reason it could not be
+ * resolved.
+ *
+ * @param <T> the entity type
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult<T> {
+
+	Integer id;
+
+	T value;
+
+	String error;
+
+	public static <T> BatchResult<T> found(final Integer id, final T value) {
+		return new BatchResult<>(id, value, null);
+	}
+
+	public static <T> BatchResult<T> failed(final Integer id, final String error) {
+		return new BatchResult<>(id, null, error);
+	}
+
+}
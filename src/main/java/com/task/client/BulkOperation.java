@@ -0,0 +1,43 @@
+package com.task.client;
+
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One create, update or delete of a bulk write request. Creates and updates
+ * carry the entity, deletes the entity ID.
+ *
+ * @param <T> the entity type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperation<T> {
+
+	public enum Type {
+		CREATE, UPDATE, DELETE;
+
+		@JsonCreator
+		public static Type parse(final String value) {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		}
+
+		@JsonValue
+		public String toJson() {
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	private Type op;
+
+	private Integer id;
+
+	private T entity;
+
+}
@@ -0,0 +1,39 @@
+package com.task.client;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Value;
+
+/**
+ * Result of one operation of a bulk write: the created entity, nothing for
+ * the updates and deletes, or the reason it failed. The index is the position
+ * of the operation in the request, since the results are sent as they
+ * complete.
+ *
+ * @param <T> the entity type
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResult<T> {
+
+	int index;
+
+	BulkOperation.Type op;
+
+	Integer id;
+
+	T value;
+
+	String error;
+
+	public static <T> BulkResult<T> succeeded(final int index, final BulkOperation.Type op, final Integer id,
+			final T value) {
+		return new BulkResult<>(index, op, id, value, null);
+	}
+
+	public static <T> BulkResult<T> failed(final int index, final BulkOperation.Type op, final Integer id,
+			final String error) {
+		return new BulkResult<>(index, op, id, null, error);
+	}
+
+}
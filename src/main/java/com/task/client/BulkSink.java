@@ -0,0 +1,16 @@
+package com.task.client;
+
+import java.io.IOException;
+
+/**
+ * Receives the results of a bulk write as they complete, e.g. to stream them
+ * to the client.
+ *
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface BulkSink<T> {
+
+	void accept(BulkResult<T> result) throws IOException;
+
+}
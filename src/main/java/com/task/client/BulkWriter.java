@@ -0,0 +1,276 @@
+package com.task.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.task.config.BatchProperties;
+import com.task.config.WorkerThreads;
+import com.task.exception.ApiResponseNotValidException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the create, update and delete operations of a bulk write with at most
+ * <code>batch.write-parallelism</code> upstream calls at the same time, so a
+ * batch of N operations takes about N / parallelism round trips instead of N.
+ * The operations on the same ID run one after the other in request order. The
+ * blocking writes share a pool of <code>batch.writers</code> threads, and the
+ * per-request bound keeps a large bulk write from holding the whole pool. The
+ * result of every operation is handed over as soon as it completes, with the
+ * index of the operation, and a failed operation does not fail the others.
+ */
+public class BulkWriter {
+
+	static final String TYPE_REQUIRED = "The operation has no type.";
+
+	static final String ENTITY_REQUIRED = "The operation has no entity.";
+
+	static final String ID_REQUIRED = "The operation has no ID.";
+
+	private final BatchProperties properties;
+
+	private final ExecutorService writers;
+
+	public BulkWriter(final BatchProperties properties) {
+		this(properties, WorkerThreads.pool("bulk", properties.getWriters()));
+	}
+
+	public BulkWriter(final BatchProperties properties, final ExecutorService writers) {
+
+		this.properties = properties;
+		this.writers = writers;
+	}
+
+	/**
+	 * Checks that the bulk write is not too large, before its results start to
+	 * be streamed.
+	 *
+	 * @param operations the operations
+	 * @throws IllegalArgumentException if there are more than
+	 *                                  <code>batch.max-operations</code>
+	 *                                  operations
+	 */
+	public void checkSize(final List<?> operations) {
+		if (operations.size() > properties.getMaxOperations()) {
+			throw tooManyOperations();
+		}
+	}
+
+	/**
+	 * Runs the operations through the blocking client. Once the sink fails,
+	 * e.g. because the client went away, no further operation is sent.
+	 *
+	 * @param <T>        the entity type
+	 * @param operations the operations
+	 * @param create     the create of one entity
+	 * @param update     the update of one entity
+	 * @param delete     the delete of one entity by ID
+	 * @param idOf       the ID of an entity
+	 * @param sink       receives the result of every operation as it completes,
+	 *                   on the calling thread
+	 * @throws IOException              if the sink fails
+	 * @throws IllegalArgumentException if there are more than
+	 *                                  <code>batch.max-operations</code>
+	 *                                  operations
+	 */
+	public <T> void write(final List<BulkOperation<T>> operations, final EntityCreate<T> create,
+			final Consumer<T> update, final Consumer<Integer> delete, final Function<T, Integer> idOf,
+			final BulkSink<T> sink) throws IOException {
+
+		checkSize(operations);
+
+		List<List<Integer>> chains = chains(operations, idOf);
+		Semaphore permits = new Semaphore(properties.getWriteParallelism());
+		BlockingQueue<BulkResult<T>> results = new LinkedBlockingQueue<>();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		List<Future<?>> running = new ArrayList<>(chains.size());
+
+		try {
+			int next = 0;
+			for (int received = 0; received < operations.size(); received++) {
+				while (next < chains.size() && permits.tryAcquire()) {
+					List<Integer> chain = chains.get(next++);
+					running.add(writers.submit(() -> {
+						BulkResult<T> last = null;
+						try {
+							for (int index : chain) {
+								if (cancelled.get()) {
+									return;
+								}
+								if (last != null) {
+									results.add(last);
+								}
+								last = apply(index, operations.get(index), create, update, delete, idOf);
+							}
+						} finally {
+							permits.release();
+						}
+						results.add(last);
+					}));
+				}
+				sink.accept(results.take());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the bulk write", e);
+		} finally {
+			cancelled.set(true);
+			running.forEach(chain -> chain.cancel(true));
+		}
+	}
+
+	/**
+	 * Runs the operations through the non-blocking client. Cancelling the
+	 * results stops the operations not sent yet.
+	 *
+	 * @param <T>        the entity type
+	 * @param operations the operations
+	 * @param create     the create of one entity
+	 * @param update     the update of one entity
+	 * @param delete     the delete of one entity by ID
+	 * @param idOf       the ID of an entity
+	 * @return the result of every operation as it completes, or an
+	 *         IllegalArgumentException if there are more than
+	 *         <code>batch.max-operations</code> operations
+	 */
+	public <T> Flux<BulkResult<T>> writeReactive(final List<BulkOperation<T>> operations,
+			final Function<T, Mono<T>> create, final Function<T, Mono<Void>> update,
+			final Function<Integer, Mono<Void>> delete, final Function<T, Integer> idOf) {
+
+		if (operations.size() > properties.getMaxOperations()) {
+			return Flux.error(tooManyOperations());
+		}
+
+		return Flux.fromIterable(chains(operations, idOf)).flatMap(chain -> Flux.fromIterable(chain)
+				.concatMap(index -> applyReactive(index, operations.get(index), create, update, delete, idOf)),
+				properties.getWriteParallelism());
+	}
+
+	/**
+	 * Stops the writer threads.
+	 */
+	public void shutdown() throws InterruptedException {
+		writers.shutdown();
+		if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+			writers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Splits the operations into chains that run concurrently: the operations
+	 * on the same ID form one chain, in request order, so a create or update
+	 * followed by a delete of the same entity reaches the API in that order.
+	 * An operation without ID is a chain of its own.
+	 */
+	private static <T> List<List<Integer>> chains(final List<BulkOperation<T>> operations,
+			final Function<T, Integer> idOf) {
+
+		List<List<Integer>> chains = new ArrayList<>();
+		Map<Integer, List<Integer>> byId = new HashMap<>();
+		for (int index = 0; index < operations.size(); index++) {
+			Integer id = idOf(operations.get(index), idOf);
+			List<Integer> chain = id == null ? null : byId.get(id);
+			if (chain == null) {
+				chain = new ArrayList<>();
+				chains.add(chain);
+				if (id != null) {
+					byId.put(id, chain);
+				}
+			}
+			chain.add(index);
+		}
+		return chains;
+	}
+
+	private <T> Mono<BulkResult<T>> applyReactive(final int index, final BulkOperation<T> operation,
+			final Function<T, Mono<T>> create, final Function<T, Mono<Void>> update,
+			final Function<Integer, Mono<Void>> delete, final Function<T, Integer> idOf) {
+
+		BulkOperation.Type op = operation.getOp();
+		Integer id = idOf(operation, idOf);
+		String invalid = validate(operation, id);
+		if (invalid != null) {
+			return Mono.just(BulkResult.failed(index, op, id, invalid));
+		}
+
+		Mono<T> call;
+		switch (op) {
+		case CREATE:
+			call = create.apply(operation.getEntity());
+			break;
+		case UPDATE:
+			call = update.apply(operation.getEntity()).then(Mono.empty());
+			break;
+		default:
+			call = delete.apply(id).then(Mono.empty());
+		}
+		return call.map(value -> BulkResult.succeeded(index, op, id, value))
+				.defaultIfEmpty(BulkResult.succeeded(index, op, id, null))
+				.onErrorResume(e -> Mono.just(BulkResult.failed(index, op, id, e.getMessage())));
+	}
+
+	private <T> BulkResult<T> apply(final int index, final BulkOperation<T> operation, final EntityCreate<T> create,
+			final Consumer<T> update, final Consumer<Integer> delete, final Function<T, Integer> idOf) {
+
+		BulkOperation.Type op = operation.getOp();
+		Integer id = idOf(operation, idOf);
+		String invalid = validate(operation, id);
+		if (invalid != null) {
+			return BulkResult.failed(index, op, id, invalid);
+		}
+
+		try {
+			switch (op) {
+			case CREATE:
+				return BulkResult.succeeded(index, op, id, create.create(operation.getEntity()));
+			case UPDATE:
+				update.accept(operation.getEntity());
+				break;
+			default:
+				delete.accept(id);
+			}
+			return BulkResult.succeeded(index, op, id, null);
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			return BulkResult.failed(index, op, id, e.getMessage());
+		}
+	}
+
+	private static <T> Integer idOf(final BulkOperation<T> operation, final Function<T, Integer> idOf) {
+		if (operation.getId() != null || operation.getEntity() == null) {
+			return operation.getId();
+		}
+		return idOf.apply(operation.getEntity());
+	}
+
+	private static String validate(final BulkOperation<?> operation, final Integer id) {
+		if (operation.getOp() == null) {
+			return TYPE_REQUIRED;
+		}
+		if (operation.getOp() != BulkOperation.Type.DELETE && operation.getEntity() == null) {
+			return ENTITY_REQUIRED;
+		}
+		if (operation.getOp() != BulkOperation.Type.CREATE && id == null) {
+			return ID_REQUIRED;
+		}
+		return null;
+	}
+
+	private IllegalArgumentException tooManyOperations() {
+		return new IllegalArgumentException(
+				"A bulk write can have at most " + properties.getMaxOperations() + " operations.");
+	}
+
+}
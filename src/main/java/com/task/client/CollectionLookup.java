@@ -0,0 +1,17 @@
+package com.task.client;
+
+import java.util.List;
+
+import com.task.exception.ApiResponseNotValidException;
+
+/**
+ * Upstream read of a whole entity collection.
+ *
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface CollectionLookup<T> {
+
+	List<T> get() throws ApiResponseNotValidException;
+
+}
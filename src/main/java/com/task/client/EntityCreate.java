@@ -0,0 +1,15 @@
+package com.task.client;
+
+import com.task.exception.ApiResponseNotValidException;
+
+/**
+ * Upstream create of one entity.
+ *
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface EntityCreate<T> {
+
+	T create(T entity) throws ApiResponseNotValidException;
+
+}
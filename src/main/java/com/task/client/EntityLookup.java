@@ -0,0 +1,15 @@
+package com.task.client;
+
+import com.task.exception.ApiResponseNotValidException;
+
+/**
+ * Upstream read of one entity by ID.
+ *
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface EntityLookup<T> {
+
+	T get(Integer id) throws ApiResponseNotValidException;
+
+}
@@ -0,0 +1,246 @@
+package com.task.client;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.task.config.HedgingProperties;
+import com.task.config.WorkerThreads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedges the idempotent JSON Placeholder API reads: when a read of an endpoint
+ * takes longer than the configured latency percentile of that endpoint, a
+ * second identical request is sent and the first successful answer is used.
+ * <p>
+ * The read latency of every endpoint is recorded as the
+ * <code>upstream.latency</code> timer, whether hedging is enabled or not, so
+ * the percentiles are known before turning it on. The second requests are
+ * recorded as the <code>upstream.hedges</code> counter and the ones that
+ * answered first as the <code>upstream.hedge.wins</code> counter, so the extra
+ * load is visible.
+ */
+public class Hedger {
+
+	private static final String ENDPOINT_TAG = "endpoint";
+
+	private final HedgingProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final ExecutorService attempts;
+
+	public Hedger(final HedgingProperties properties, final MeterRegistry meterRegistry) {
+		this(properties, meterRegistry, WorkerThreads.handoffPool("hedging", properties.getMaxConcurrentAttempts()));
+	}
+
+	public Hedger(final HedgingProperties properties, final MeterRegistry meterRegistry,
+			final ExecutorService attempts) {
+
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.attempts = attempts;
+	}
+
+	/**
+	 * Executes a blocking read, hedging it if it is slow.
+	 *
+	 * @param <T>      the result type
+	 * @param endpoint the endpoint name, e.g. <code>user-by-id</code>
+	 * @param call     the read
+	 * @return the first successful result
+	 */
+	public <T> T call(final String endpoint, final Supplier<T> call) {
+
+		Timer latency = latency(endpoint);
+		Supplier<T> timed = () -> latency.record(call);
+		if (!properties.isEnabled()) {
+			return timed.get();
+		}
+
+		Optional<Duration> delay = hedgeDelay(latency);
+		if (delay.isEmpty()) {
+			return timed.get();
+		}
+
+		CompletableFuture<T> primary;
+		try {
+			primary = CompletableFuture.supplyAsync(timed, attempts);
+		} catch (RejectedExecutionException e) {
+			return timed.get();
+		}
+
+		try {
+			return primary.get(delay.get().toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			return await(hedge(endpoint, primary, timed));
+		} catch (ExecutionException e) {
+			throw propagate(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the API", e);
+		}
+	}
+
+	/**
+	 * Hedges a non-blocking read if it is slow.
+	 *
+	 * @param <T>      the result type
+	 * @param endpoint the endpoint name, e.g. <code>user-by-id</code>
+	 * @param call     the read, which sends a new request on every subscription
+	 * @return the first successful result
+	 */
+	public <T> Mono<T> call(final String endpoint, final Mono<T> call) {
+
+		Timer latency = latency(endpoint);
+		Mono<T> timed = Mono.defer(() -> {
+			long start = System.nanoTime();
+			return call.doOnSuccess(value -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+		});
+		if (!properties.isEnabled()) {
+			return timed;
+		}
+
+		return Mono.defer(() -> hedgeDelay(latency).map(delay -> {
+			Mono<T> hedge = Mono.delay(delay).then(Mono.defer(() -> {
+				counter("upstream.hedges", endpoint).increment();
+				return timed.doOnSuccess(value -> counter("upstream.hedge.wins", endpoint).increment());
+			}));
+			return Mono.firstWithValue(timed, hedge).onErrorResume(NoSuchElementException.class,
+					e -> e.getSuppressed().length > 0 ? Mono.error(e.getSuppressed()[0]) : Mono.empty());
+		}).orElse(timed));
+	}
+
+	/**
+	 * Hedges a non-blocking read of a collection if it is slow to start.
+	 *
+	 * @param <T>      the element type
+	 * @param endpoint the endpoint name, e.g. <code>user-list</code>
+	 * @param call     the read, which sends a new request on every subscription
+	 * @return the elements of the first read that emits one
+	 */
+	public <T> Flux<T> call(final String endpoint, final Flux<T> call) {
+
+		Timer latency = latency(endpoint);
+		Flux<T> timed = Flux.defer(() -> {
+			long start = System.nanoTime();
+			return call.doOnComplete(() -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+		});
+		if (!properties.isEnabled()) {
+			return timed;
+		}
+
+		return Flux.defer(() -> hedgeDelay(latency).map(delay -> {
+			Flux<T> hedge = Mono.delay(delay).thenMany(Flux.defer(() -> {
+				counter("upstream.hedges", endpoint).increment();
+				return timed.doOnComplete(() -> counter("upstream.hedge.wins", endpoint).increment());
+			}));
+			return Flux.firstWithValue(timed, hedge).onErrorResume(NoSuchElementException.class,
+					e -> e.getSuppressed().length > 0 ? Flux.error(e.getSuppressed()[0]) : Flux.empty());
+		}).orElse(timed));
+	}
+
+	/**
+	 * Stops the attempt threads.
+	 */
+	public void shutdown() {
+		attempts.shutdownNow();
+	}
+
+	private <T> CompletableFuture<T> hedge(final String endpoint, final CompletableFuture<T> primary,
+			final Supplier<T> timed) {
+
+		CompletableFuture<T> hedge;
+		try {
+			hedge = CompletableFuture.supplyAsync(timed, attempts);
+		} catch (RejectedExecutionException e) {
+			return primary;
+		}
+		counter("upstream.hedges", endpoint).increment();
+
+		// the winner is picked before completing, so a win is counted before the caller sees the value
+		CompletableFuture<T> first = new CompletableFuture<>();
+		AtomicBoolean answered = new AtomicBoolean();
+		AtomicInteger failures = new AtomicInteger();
+		primary.whenComplete((value, error) -> {
+			if (error == null) {
+				if (answered.compareAndSet(false, true)) {
+					first.complete(value);
+				}
+			} else if (failures.incrementAndGet() == 2) {
+				first.completeExceptionally(error);
+			}
+		});
+		hedge.whenComplete((value, error) -> {
+			if (error == null) {
+				if (answered.compareAndSet(false, true)) {
+					counter("upstream.hedge.wins", endpoint).increment();
+					first.complete(value);
+				}
+			} else if (failures.incrementAndGet() == 2) {
+				first.completeExceptionally(error);
+			}
+		});
+		return first;
+	}
+
+	private <T> T await(final CompletableFuture<T> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw propagate(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the API", e);
+		}
+	}
+
+	private Optional<Duration> hedgeDelay(final Timer latency) {
+
+		if (latency.count() < properties.getMinSamples()) {
+			return Optional.empty();
+		}
+		for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+			if (value.percentile() == properties.getPercentile()) {
+				long nanos = Math.max((long) value.value(TimeUnit.NANOSECONDS), properties.getMinDelay().toNanos());
+				return Optional.of(Duration.ofNanos(nanos));
+			}
+		}
+		return Optional.empty();
+	}
+
+	private Timer latency(final String endpoint) {
+		return Timer.builder("upstream.latency").description("Latency of the JSON Placeholder API reads")
+				.tag(ENDPOINT_TAG, endpoint).publishPercentiles(properties.getPercentile()).register(meterRegistry);
+	}
+
+	private Counter counter(final String name, final String endpoint) {
+		return Counter.builder(name).tag(ENDPOINT_TAG, endpoint).register(meterRegistry);
+	}
+
+	private static RuntimeException propagate(final Throwable cause) {
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new IllegalStateException(cause);
+	}
+
+}
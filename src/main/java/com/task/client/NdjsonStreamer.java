@@ -0,0 +1,120 @@
+package com.task.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a JSON array from the JSON Placeholder API as newline delimited JSON.
+ * The array is parsed token by token and every element is written and flushed
+ * as soon as it is decoded, so the heap use does not grow with the size of the
+ * collection. The request is sent by {@link #open(URI)}, so the caller can
+ * guard the API call alone and not the transfer to its own client.
+ */
+@Component
+public class NdjsonStreamer {
+
+	private static final String ERROR_MESSAGE = "Error streaming API response. Response body is not a JSON array.";
+
+	@Autowired
+	private RestTemplate restTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Sends a GET request through the RestTemplate request factory and
+	 * interceptors, and checks the response status without reading the body.
+	 *
+	 * @param uri the request URI
+	 * @return the response, closed by {@link #write(ClientHttpResponse, Class, OutputStream)}
+	 * @throws RestClientException if the request fails or the response status is
+	 *                             an error
+	 */
+	public ClientHttpResponse open(final URI uri) {
+
+		try {
+			ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+			request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+			ClientHttpResponse response = request.execute();
+			if (restTemplate.getErrorHandler().hasError(response)) {
+				try (response) {
+					restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, response);
+				}
+			}
+			return response;
+		} catch (IOException e) {
+			throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Writes the elements of the JSON array of an opened response and closes
+	 * it.
+	 *
+	 * @param <T>      the element type
+	 * @param response the response returned by {@link #open(URI)}
+	 * @param type     the element class
+	 * @param out      the stream the elements are written to, one per line
+	 * @throws IOException         if the response cannot be read or the
+	 *                             elements cannot be written
+	 * @throws RestClientException if the response body is not a JSON array
+	 */
+	public <T> void write(final ClientHttpResponse response, final Class<T> type, final OutputStream out)
+			throws IOException {
+
+		try (response; JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new RestClientException(ERROR_MESSAGE);
+			}
+
+			while (parser.nextToken() == JsonToken.START_OBJECT) {
+				writeLine(objectMapper.readValue(parser, type), out);
+			}
+		}
+	}
+
+	/**
+	 * Streams the elements of the JSON array returned by the given URI.
+	 *
+	 * @param <T>  the element type
+	 * @param uri  the request URI
+	 * @param type the element class
+	 * @param out  the stream the elements are written to, one per line
+	 * @throws IOException if the response cannot be read or the elements
+	 *                     cannot be written
+	 */
+	public <T> void stream(final URI uri, final Class<T> type, final OutputStream out) throws IOException {
+		write(open(uri), type, out);
+	}
+
+	/**
+	 * Writes one value as a line of newline delimited JSON and flushes it.
+	 *
+	 * @param value the value
+	 * @param out   the stream the value is written to
+	 * @throws IOException if the value cannot be written
+	 */
+	public void writeLine(final Object value, final OutputStream out) throws IOException {
+		out.write(objectMapper.writeValueAsBytes(value));
+		out.write('\n');
+		out.flush();
+	}
+
+}
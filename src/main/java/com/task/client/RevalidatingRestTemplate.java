@@ -0,0 +1,99 @@
+package com.task.client;
+
+import java.net.URI;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * RestTemplate that revalidates the GET responses it already received instead
+ * of downloading them again. The response of every <code>getForEntity</code>
+ * that carries an <code>ETag</code> or <code>Last-Modified</code> header is
+ * kept per URI, and the next GET of the URI sends them back as
+ * <code>If-None-Match</code> and <code>If-Modified-Since</code>: a
+ * <code>304 Not Modified</code> answer returns the kept response, so its body
+ * is neither downloaded nor deserialized again.
+ * <p>
+ * At most <code>upstream.http.revalidation-maximum-size</code> URIs are kept
+ * and the outcomes are counted by the <code>upstream.revalidations</code>
+ * counter.
+ */
+public class RevalidatingRestTemplate extends RestTemplate {
+
+	private final Cache<URI, ResponseEntity<?>> responses;
+
+	private final Counter notModified;
+
+	private final Counter modified;
+
+	public RevalidatingRestTemplate(final long maximumSize, final MeterRegistry meterRegistry) {
+
+		this.responses = Caffeine.newBuilder().maximumSize(maximumSize).build();
+		this.notModified = revalidations(meterRegistry, "not_modified");
+		this.modified = revalidations(meterRegistry, "modified");
+	}
+
+	@Override
+	public <T> ResponseEntity<T> getForEntity(final URI url, final Class<T> responseType)
+			throws RestClientException {
+
+		ResponseEntity<?> stored = responses.getIfPresent(url);
+		if (stored == null || !responseType.isInstance(stored.getBody())) {
+			return store(url, super.getForEntity(url, responseType));
+		}
+
+		ResponseEntity<T> response = exchange(url, HttpMethod.GET, new HttpEntity<>(validators(stored)),
+				responseType);
+		if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			notModified.increment();
+			@SuppressWarnings("unchecked")
+			ResponseEntity<T> reused = (ResponseEntity<T>) stored;
+			return reused;
+		}
+		modified.increment();
+		return store(url, response);
+	}
+
+	private <T> ResponseEntity<T> store(final URI url, final ResponseEntity<T> response) {
+
+		HttpHeaders headers = response.getHeaders();
+		if (response.getStatusCode() == HttpStatus.OK && response.hasBody()
+				&& (headers.getETag() != null || headers.getLastModified() >= 0)) {
+			responses.put(url, response);
+		} else {
+			responses.invalidate(url);
+		}
+		return response;
+	}
+
+	private static HttpHeaders validators(final ResponseEntity<?> stored) {
+
+		HttpHeaders validators = new HttpHeaders();
+		String etag = stored.getHeaders().getETag();
+		if (etag != null) {
+			validators.setIfNoneMatch(etag);
+		}
+		long lastModified = stored.getHeaders().getLastModified();
+		if (lastModified >= 0) {
+			validators.setIfModifiedSince(lastModified);
+		}
+		return validators;
+	}
+
+	private static Counter revalidations(final MeterRegistry meterRegistry, final String outcome) {
+		return Counter.builder("upstream.revalidations").description("Conditional GETs of the API by outcome")
+				.tag("outcome", outcome).register(meterRegistry);
+	}
+
+}
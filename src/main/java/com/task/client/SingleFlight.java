@@ -0,0 +1,75 @@
+package com.task.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Deduplicates concurrent identical upstream reads: while a call for a key is
+ * in flight, other callers asking for the same key wait for it and share its
+ * result instead of issuing their own request. A failed call, errors
+ * included, fails all the callers of its flight.
+ */
+@Component
+public class SingleFlight {
+
+	private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Executes the call, or joins the call already in flight for the same key.
+	 *
+	 * @param <T>  the result type
+	 * @param key  the call key, usually the request URI
+	 * @param call the upstream call
+	 * @return the result shared by all the callers of the same flight
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(final Object key, final Supplier<T> call) {
+
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+		if (existing != null) {
+			return (T) join(existing);
+		}
+
+		try {
+			T result = call.get();
+			flight.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	/**
+	 * Gets the number of calls currently in flight.
+	 *
+	 * @return the number of in-flight calls
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	private Object join(final CompletableFuture<Object> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
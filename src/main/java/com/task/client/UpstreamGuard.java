@@ -0,0 +1,267 @@
+package com.task.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.task.exception.UpstreamUnavailableException;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.decorators.Decorators;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the JSON Placeholder API calls through a circuit breaker per endpoint
+ * and a bulkhead per entity type. The bulkhead bounds the number of threads
+ * that can wait on the API at the same time, so a slow API cannot take the
+ * whole request thread pool, and the open circuit breaker fails calls fast
+ * until the API recovers. Rejected calls throw an
+ * UpstreamUnavailableException. The breakers and bulkheads are configured with
+ * the <code>resilience4j.*</code> properties and exposed as metrics.
+ * <p>
+ * The idempotent reads are also retried with a jittered exponential backoff
+ * (one retry policy per entity type, counted by the
+ * <code>upstream.retries</code> metric) and hedged by the Hedger when they are
+ * slow. Writes are never retried nor hedged.
+ * <p>
+ * Every attempt that reaches the API, hedges included, is recorded by the
+ * <code>upstream.requests</code> timer with a percentile histogram, tagged by
+ * endpoint and exception.
+ */
+@Component
+public class UpstreamGuard {
+
+	private static final String NO_EXCEPTION = "None";
+
+	private final CircuitBreakerRegistry circuitBreakers;
+
+	private final BulkheadRegistry bulkheads;
+
+	private final RetryRegistry retries;
+
+	private final Hedger hedger;
+
+	private final MeterRegistry meterRegistry;
+
+	@Autowired
+	public UpstreamGuard(final CircuitBreakerRegistry circuitBreakers, final BulkheadRegistry bulkheads,
+			final RetryRegistry retries, final Hedger hedger, final MeterRegistry meterRegistry) {
+
+		this.circuitBreakers = circuitBreakers;
+		this.bulkheads = bulkheads;
+		this.retries = retries;
+		this.hedger = hedger;
+		this.meterRegistry = meterRegistry;
+
+		retries.getAllRetries().forEach(this::countRetries);
+		retries.getEventPublisher().onEntryAdded(event -> countRetries(event.getAddedEntry()));
+	}
+
+	/**
+	 * Executes a blocking idempotent read, retrying and hedging it.
+	 *
+	 * @param <T>            the result type
+	 * @param bulkhead       the bulkhead and retry name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-list</code>
+	 * @param call           the API call
+	 * @return the call result
+	 * @throws UpstreamUnavailableException if the call is rejected
+	 */
+	public <T> T read(final String bulkhead, final String circuitBreaker, final Supplier<T> call) {
+
+		Supplier<T> guarded = Decorators.ofSupplier(() -> hedger.call(circuitBreaker, timed(circuitBreaker, call)))
+				.withCircuitBreaker(circuitBreakers.circuitBreaker(circuitBreaker))
+				.withBulkhead(bulkheads.bulkhead(bulkhead)).withRetry(retries.retry(bulkhead)).decorate();
+		return execute(guarded);
+	}
+
+	/**
+	 * Executes a blocking call.
+	 *
+	 * @param <T>            the result type
+	 * @param bulkhead       the bulkhead name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-write</code>
+	 * @param call           the API call
+	 * @return the call result
+	 * @throws UpstreamUnavailableException if the call is rejected
+	 */
+	public <T> T call(final String bulkhead, final String circuitBreaker, final Supplier<T> call) {
+
+		Supplier<T> guarded = Decorators.ofSupplier(timed(circuitBreaker, call))
+				.withCircuitBreaker(circuitBreakers.circuitBreaker(circuitBreaker))
+				.withBulkhead(bulkheads.bulkhead(bulkhead)).decorate();
+		return execute(guarded);
+	}
+
+	/**
+	 * Executes a blocking call without result.
+	 *
+	 * @param bulkhead       the bulkhead name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-write</code>
+	 * @param call           the API call
+	 * @throws UpstreamUnavailableException if the call is rejected
+	 */
+	public void run(final String bulkhead, final String circuitBreaker, final Runnable call) {
+		call(bulkhead, circuitBreaker, () -> {
+			call.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Guards a non-blocking idempotent read, retrying and hedging it.
+	 *
+	 * @param <T>            the result type
+	 * @param bulkhead       the bulkhead and retry name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-by-id</code>
+	 * @param call           the API call, which sends a new request on every
+	 *                       subscription
+	 * @return the guarded call, which emits an UpstreamUnavailableException if it
+	 *         is rejected
+	 */
+	public <T> Mono<T> read(final String bulkhead, final String circuitBreaker, final Mono<T> call) {
+
+		return guard(bulkhead, circuitBreaker, hedger.call(circuitBreaker, timed(circuitBreaker, call)))
+				.transformDeferred(RetryOperator.of(retries.retry(bulkhead)));
+	}
+
+	/**
+	 * Guards a non-blocking idempotent read of a collection, retrying and
+	 * hedging it.
+	 *
+	 * @param <T>            the element type
+	 * @param bulkhead       the bulkhead and retry name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-list</code>
+	 * @param call           the API call, which sends a new request on every
+	 *                       subscription
+	 * @return the guarded call, which emits an UpstreamUnavailableException if it
+	 *         is rejected
+	 */
+	public <T> Flux<T> read(final String bulkhead, final String circuitBreaker, final Flux<T> call) {
+
+		return guard(bulkhead, circuitBreaker, hedger.call(circuitBreaker, timed(circuitBreaker, call)))
+				.transformDeferred(RetryOperator.of(retries.retry(bulkhead)));
+	}
+
+	/**
+	 * Guards a non-blocking call.
+	 *
+	 * @param <T>            the result type
+	 * @param bulkhead       the bulkhead name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-write</code>
+	 * @param call           the API call
+	 * @return the guarded call, which emits an UpstreamUnavailableException if it
+	 *         is rejected
+	 */
+	public <T> Mono<T> call(final String bulkhead, final String circuitBreaker, final Mono<T> call) {
+
+		return guard(bulkhead, circuitBreaker, timed(circuitBreaker, call));
+	}
+
+	/**
+	 * Guards a non-blocking call that emits several elements.
+	 *
+	 * @param <T>            the element type
+	 * @param bulkhead       the bulkhead name, e.g. <code>users</code>
+	 * @param circuitBreaker the circuit breaker name, e.g. <code>user-list</code>
+	 * @param call           the API call
+	 * @return the guarded call, which emits an UpstreamUnavailableException if it
+	 *         is rejected
+	 */
+	public <T> Flux<T> call(final String bulkhead, final String circuitBreaker, final Flux<T> call) {
+
+		return guard(bulkhead, circuitBreaker, timed(circuitBreaker, call));
+	}
+
+	private <T> Mono<T> guard(final String bulkhead, final String circuitBreaker, final Mono<T> call) {
+
+		return call.transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(circuitBreaker)))
+				.transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(bulkhead)))
+				.onErrorMap(UpstreamGuard::isRejection, this::rejected);
+	}
+
+	private <T> Flux<T> guard(final String bulkhead, final String circuitBreaker, final Flux<T> call) {
+
+		return call.transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(circuitBreaker)))
+				.transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(bulkhead)))
+				.onErrorMap(UpstreamGuard::isRejection, this::rejected);
+	}
+
+	private <T> T execute(final Supplier<T> guarded) {
+		try {
+			return guarded.get();
+		} catch (CallNotPermittedException | BulkheadFullException e) {
+			throw rejected(e);
+		}
+	}
+
+	private <T> Supplier<T> timed(final String endpoint, final Supplier<T> call) {
+		return () -> {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			String exception = NO_EXCEPTION;
+			try {
+				return call.get();
+			} catch (RuntimeException e) {
+				exception = e.getClass().getSimpleName();
+				throw e;
+			} finally {
+				sample.stop(latency(endpoint, exception));
+			}
+		};
+	}
+
+	private <T> Mono<T> timed(final String endpoint, final Mono<T> call) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return call.doOnSuccess(value -> record(endpoint, NO_EXCEPTION, start))
+					.doOnError(e -> record(endpoint, e.getClass().getSimpleName(), start));
+		});
+	}
+
+	private <T> Flux<T> timed(final String endpoint, final Flux<T> call) {
+		return Flux.defer(() -> {
+			long start = System.nanoTime();
+			return call.doOnComplete(() -> record(endpoint, NO_EXCEPTION, start))
+					.doOnError(e -> record(endpoint, e.getClass().getSimpleName(), start));
+		});
+	}
+
+	private void record(final String endpoint, final String exception, final long start) {
+		latency(endpoint, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer latency(final String endpoint, final String exception) {
+		return Timer.builder("upstream.requests").description("Latency of the JSON Placeholder API calls")
+				.tags("endpoint", endpoint, "exception", exception).publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	private void countRetries(final Retry retry) {
+		Counter counter = Counter.builder("upstream.retries").description("Retried JSON Placeholder API reads")
+				.tag("name", retry.getName()).register(meterRegistry);
+		retry.getEventPublisher().onRetry(event -> counter.increment());
+	}
+
+	private static boolean isRejection(final Throwable e) {
+		return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+	}
+
+	private UpstreamUnavailableException rejected(final Throwable e) {
+		return new UpstreamUnavailableException("The API call was rejected: " + e.getMessage(), e);
+	}
+
+}
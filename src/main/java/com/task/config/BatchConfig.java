@@ -0,0 +1,44 @@
+package com.task.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.task.client.BatchLoader;
+import com.task.client.BulkWriter;
+
+/**
+ * Configures the loader behind the batch GET by IDs endpoints, the writer
+ * behind the bulk write endpoints and the threads joining the Users with their
+ * Albums.
+ */
+@Configuration
+@EnableConfigurationProperties({ BatchProperties.class, ThreadsProperties.class })
+public class BatchConfig {
+
+	/**
+	 * Name of the executor the Users with Albums requests read the Albums on.
+	 */
+	public static final String JOIN_EXECUTOR = "joinExecutor";
+
+	@Bean(destroyMethod = "shutdown")
+	public BatchLoader batchLoader(final BatchProperties properties, final CacheManager cacheManager,
+			final ThreadsProperties threads) {
+		return new BatchLoader(properties, cacheManager,
+				WorkerThreads.pool("batch", properties.getFetchers(), threads));
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public BulkWriter bulkWriter(final BatchProperties properties, final ThreadsProperties threads) {
+		return new BulkWriter(properties, WorkerThreads.pool("bulk", properties.getWriters(), threads));
+	}
+
+	@Bean(name = JOIN_EXECUTOR, destroyMethod = "shutdown")
+	public ExecutorService joinExecutor(final BatchProperties properties, final ThreadsProperties threads) {
+		return WorkerThreads.pool("join", properties.getJoiners(), threads);
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Limits of the batch GET by IDs and bulk write endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "batch")
+public class BatchProperties {
+
+	/**
+	 * Maximum number of IDs accepted in one batch.
+	 */
+	private int maxIds = 100;
+
+	/**
+	 * Maximum number of upstream calls one batch issues at the same time to
+	 * resolve the IDs missing from the cache.
+	 */
+	private int parallelism = 8;
+
+	/**
+	 * Number of threads shared by all the batches to resolve the IDs missing
+	 * from the cache.
+	 */
+	private int fetchers = 32;
+
+	/**
+	 * Number of missing IDs from which one collection fetch replaces the
+	 * per-ID calls.
+	 */
+	private int collectionThreshold = 20;
+
+	/**
+	 * Maximum number of operations accepted in one bulk write.
+	 */
+	private int maxOperations = 1000;
+
+	/**
+	 * Maximum number of upstream writes one bulk write issues at the same time.
+	 * It should stay below the bulkhead of the entity type.
+	 */
+	private int writeParallelism = 10;
+
+	/**
+	 * Number of threads shared by all the bulk writes to send their operations.
+	 */
+	private int writers = 20;
+
+	/**
+	 * Number of threads shared by all the Users with Albums requests to read
+	 * the Albums while the request thread reads the Users.
+	 */
+	private int joiners = 16;
+
+}
@@ -0,0 +1,53 @@
+package com.task.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Configures the bounded, read-through Caffeine caches placed in front of the
+ * JSON Placeholder API reads. Caffeine evicts with W-TinyLFU once the size
+ * bound is reached and records the statistics exposed as
+ * <code>cache.*</code> metrics.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class CacheConfig {
+
+	public static final String USERS = "users";
+
+	public static final String USER_LIST = "user-list";
+
+	public static final String ALBUMS = "albums";
+
+	public static final String ALBUM_LIST = "album-list";
+
+	@Bean
+	public CacheManager cacheManager(final EntityCacheProperties properties) {
+
+		List<CaffeineCache> caches = Stream.of(USERS, USER_LIST, ALBUMS, ALBUM_LIST)
+				.map(name -> buildCache(name, properties.getSpec(name))).collect(Collectors.toList());
+
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(caches);
+		return cacheManager;
+	}
+
+	private CaffeineCache buildCache(final String name, final EntityCacheProperties.Spec spec) {
+
+		return new CaffeineCache(name, Caffeine.newBuilder().expireAfterWrite(spec.getTtl())
+				.maximumSize(spec.getMaximumSize()).recordStats().build());
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.task.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Time to live and size bound of each entity cache, keyed by cache name.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class EntityCacheProperties {
+
+	/**
+	 * Settings applied to the caches without a specific entry.
+	 */
+	private Spec defaults = new Spec();
+
+	/**
+	 * Settings of each cache, keyed by cache name.
+	 */
+	private Map<String, Spec> entities = new HashMap<>();
+
+	/**
+	 * Gets the settings of the given cache, falling back to the defaults.
+	 *
+	 * @param cacheName the cache name
+	 * @return the cache settings
+	 */
+	public Spec getSpec(final String cacheName) {
+		return entities.getOrDefault(cacheName, defaults);
+	}
+
+	@Data
+	public static class Spec {
+
+		/**
+		 * Time after which an entry expires once written.
+		 */
+		private Duration ttl = Duration.ofMinutes(5);
+
+		/**
+		 * Maximum number of entries kept in the cache.
+		 */
+		private long maximumSize = 1000;
+
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.task.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Adds an <code>ETag</code> computed from the response body to the responses
+ * of the /users and /albums routes and answers <code>304 Not Modified</code>
+ * without the body when a client sends it back in
+ * <code>If-None-Match</code>. The streamed responses opt out, since the whole
+ * body would have to be buffered to compute it. The ETags are weak, as they
+ * are shared by the gzip and identity encodings of a body, and Tomcat does not
+ * compress the responses with a strong one.
+ */
+@Configuration
+@Profile("!reactive")
+public class EtagConfig {
+
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+
+		ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+		filter.setWriteWeakETag(true);
+
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/users", "/users/*", "/albums", "/albums/*");
+		return registration;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.task.client.Hedger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configures the hedging of the slow JSON Placeholder API reads.
+ */
+@Configuration
+@EnableConfigurationProperties({ HedgingProperties.class, ThreadsProperties.class })
+public class HedgingConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public Hedger hedger(final HedgingProperties properties, final MeterRegistry meterRegistry,
+			final ThreadsProperties threads) {
+		return new Hedger(properties, meterRegistry,
+				WorkerThreads.handoffPool("hedging", properties.getMaxConcurrentAttempts(), threads));
+	}
+
+}
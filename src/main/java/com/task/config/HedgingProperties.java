@@ -0,0 +1,44 @@
+package com.task.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings of the hedged reads of the JSON Placeholder API: when a read takes
+ * longer than a latency percentile of its endpoint, a second identical request
+ * is sent and the first answer wins.
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.hedging")
+public class HedgingProperties {
+
+	/**
+	 * Whether slow reads are hedged.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Latency percentile of the endpoint after which the second request is sent.
+	 */
+	private double percentile = 0.95;
+
+	/**
+	 * Minimum time waited before sending the second request.
+	 */
+	private Duration minDelay = Duration.ofMillis(20);
+
+	/**
+	 * Number of timed reads of an endpoint needed before it is hedged.
+	 */
+	private long minSamples = 50;
+
+	/**
+	 * Maximum number of blocking read attempts in flight at the same time;
+	 * reads beyond it are not hedged.
+	 */
+	private int maxConcurrentAttempts = 64;
+
+}
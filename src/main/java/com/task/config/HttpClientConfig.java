@@ -0,0 +1,97 @@
+package com.task.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.task.client.RevalidatingRestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Configures the pooled, keep-alive HTTP client used by the RestTemplate to
+ * call the JSON Placeholder API. It asks for compressed responses unless
+ * <code>upstream.http.compression=false</code>.
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager upstreamConnectionManager(final HttpClientProperties properties) {
+
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(properties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+		return connectionManager;
+	}
+
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient upstreamHttpClient(final PoolingHttpClientConnectionManager upstreamConnectionManager,
+			final HttpClientProperties properties) {
+
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+				.setSocketTimeout((int) properties.getReadTimeout().toMillis())
+				.setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis()).build();
+
+		HttpClientBuilder builder = HttpClients.custom().setConnectionManager(upstreamConnectionManager)
+				.setDefaultRequestConfig(requestConfig).setKeepAliveStrategy(keepAliveStrategy(properties))
+				.evictExpiredConnections()
+				.evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		if (!properties.isCompression()) {
+			builder.disableContentCompression();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Builds the RestTemplate on the pooled client, revalidating the responses
+	 * it already received with conditional GETs.
+	 */
+	@Bean
+	public RestTemplate restTemplate(final RestTemplateBuilder builder, final CloseableHttpClient upstreamHttpClient,
+			final HttpClientProperties properties, final MeterRegistry meterRegistry) {
+
+		return builder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(upstreamHttpClient))
+				.configure(new RevalidatingRestTemplate(properties.getRevalidationMaximumSize(), meterRegistry));
+	}
+
+	/**
+	 * Exposes the leased, pending and available connections of the pool as
+	 * <code>httpcomponents.httpclient.pool.*</code> metrics.
+	 */
+	@Bean
+	public MeterBinder upstreamConnectionPoolMetrics(final PoolingHttpClientConnectionManager upstreamConnectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "upstream");
+	}
+
+	/**
+	 * Uses the Keep-Alive header sent by the server and falls back to the
+	 * configured keep-alive when it is missing.
+	 */
+	private ConnectionKeepAliveStrategy keepAliveStrategy(final HttpClientProperties properties) {
+
+		long defaultKeepAlive = properties.getKeepAlive().toMillis();
+		return (response, context) -> {
+			long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+		};
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.task.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Connection pool and timeout settings of the HTTP client used to call the
+ * JSON Placeholder API.
+ */
+@Data
+@ConfigurationProperties(prefix = "upstream.http")
+public class HttpClientProperties {
+
+	/**
+	 * Base URL of the JSON Placeholder API.
+	 */
+	private String baseUrl = "https://jsonplaceholder.typicode.com";
+
+	/**
+	 * Maximum number of pooled connections across all routes.
+	 */
+	private int maxTotal = 200;
+
+	/**
+	 * Maximum number of pooled connections per route (host).
+	 */
+	private int maxPerRoute = 50;
+
+	/**
+	 * Time allowed to establish the TCP/TLS connection.
+	 */
+	private Duration connectTimeout = Duration.ofSeconds(2);
+
+	/**
+	 * Time allowed between two data packets of the response (socket timeout).
+	 */
+	private Duration readTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * Time allowed to wait for a free connection from the pool.
+	 */
+	private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+	/**
+	 * Maximum number of requests of the reactive client waiting for a free
+	 * connection from the pool.
+	 */
+	private int maxPendingAcquires = 1000;
+
+	/**
+	 * Keep-alive applied when the server does not send a Keep-Alive header.
+	 */
+	private Duration keepAlive = Duration.ofSeconds(30);
+
+	/**
+	 * Idle time after which pooled connections are evicted in the background.
+	 */
+	private Duration idleTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Inactivity period after which a pooled connection is validated before being
+	 * leased again.
+	 */
+	private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+	/**
+	 * Whether the API responses are requested compressed (gzip, deflate) and
+	 * decompressed on arrival.
+	 */
+	private boolean compression = true;
+
+	/**
+	 * Maximum number of GET responses kept with their ETag or Last-Modified
+	 * validators to revalidate them with conditional requests.
+	 */
+	private long revalidationMaximumSize = 10000;
+
+}
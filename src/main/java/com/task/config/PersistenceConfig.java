@@ -0,0 +1,34 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.task.persistence.BulkExporter;
+import com.task.persistence.PersistencePipeline;
+import com.task.storage.EntityStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configures the background pipeline that writes the saved Users and Albums to
+ * disk, and the bulk exporter that writes whole collections.
+ */
+@Configuration
+@EnableConfigurationProperties({ PersistenceProperties.class, ThreadsProperties.class })
+public class PersistenceConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public PersistencePipeline persistencePipeline(final PersistenceProperties properties,
+			final EntityStore entityStore, final MeterRegistry meterRegistry, final ThreadsProperties threads) {
+		return new PersistencePipeline(properties, entityStore, meterRegistry,
+				WorkerThreads.pool("persistence", properties.getWorkers(), threads));
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public BulkExporter bulkExporter(final PersistenceProperties properties, final ThreadsProperties threads) {
+		return new BulkExporter(properties,
+				WorkerThreads.pool("export", properties.getExportParallelism(), threads));
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.task.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Queue, worker and batching settings of the background pipeline that writes
+ * the saved Users and Albums to disk, and parallelism of the bulk exports.
+ */
+@Data
+@ConfigurationProperties(prefix = "persistence")
+public class PersistenceProperties {
+
+	/**
+	 * Maximum number of save jobs waiting to be written.
+	 */
+	private int queueCapacity = 1000;
+
+	/**
+	 * Number of worker threads writing the files.
+	 */
+	private int workers = 4;
+
+	/**
+	 * Maximum number of queued save jobs a worker writes in one batch. With
+	 * <code>storage.fsync</code> the files of a batch are made durable together.
+	 */
+	private int batchSize = 32;
+
+	/**
+	 * Time a request waits for a free slot when the queue is full before the
+	 * save is rejected.
+	 */
+	private Duration offerTimeout = Duration.ofMillis(100);
+
+	/**
+	 * Whether the /save endpoints wait for the files to be written by default.
+	 */
+	private boolean waitForDurability = false;
+
+	/**
+	 * Time a request waits for its files to be written when it asks for
+	 * durability.
+	 */
+	private Duration durabilityTimeout = Duration.ofSeconds(10);
+
+	/**
+	 * Time the status of a save job is kept once submitted.
+	 */
+	private Duration statusRetention = Duration.ofHours(1);
+
+	/**
+	 * Maximum number of save job statuses kept.
+	 */
+	private long statusMaximumSize = 10000;
+
+	/**
+	 * Maximum number of entities written at the same time by the bulk exports.
+	 */
+	private int exportParallelism = 4;
+
+}
@@ -0,0 +1,15 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic refresh of the User and Album snapshots.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(PrefetchProperties.class)
+public class PrefetchConfig {
+
+}
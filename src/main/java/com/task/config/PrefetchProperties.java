@@ -0,0 +1,28 @@
+package com.task.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings of the User and Album snapshots loaded at startup and refreshed in
+ * the background.
+ */
+@Data
+@ConfigurationProperties(prefix = "prefetch")
+public class PrefetchProperties {
+
+	/**
+	 * Whether the snapshots are loaded before the application reports ready and
+	 * then refreshed.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Time between two reloads of the snapshots from the API.
+	 */
+	private Duration refreshInterval = Duration.ofMinutes(5);
+
+}
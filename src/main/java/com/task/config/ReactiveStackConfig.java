@@ -0,0 +1,47 @@
+package com.task.config;
+
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Completes the Spring Boot setup of the reactive stack (<code>reactive</code>
+ * profile), which shares the classpath with the blocking stack.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveStackConfig {
+
+	/**
+	 * Serves the requests on Reactor Netty. Tomcat stays on the classpath for
+	 * the blocking stack, and Spring Boot prefers it over Netty for a reactive
+	 * application unless a server factory is declared. The
+	 * <code>server.*</code> settings still apply to this factory.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+			final ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+
+		NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+		factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().collect(Collectors.toList()));
+		return factory;
+	}
+
+	/**
+	 * Spring Boot only provides the RestTemplateBuilder to servlet
+	 * applications, while the blocking services behind the saves and exports
+	 * still need the RestTemplate.
+	 */
+	@Bean
+	public RestTemplateBuilder restTemplateBuilder(final ObjectProvider<RestTemplateCustomizer> customizers) {
+		return new RestTemplateBuilder().customizers(customizers.orderedStream().collect(Collectors.toList()));
+	}
+
+}
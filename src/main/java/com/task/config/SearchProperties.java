@@ -0,0 +1,32 @@
+package com.task.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Refresh and paging settings of the in-memory search behind the /find
+ * endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+
+	/**
+	 * Time between two rebuilds of the search indexes from the API.
+	 */
+	private Duration refreshInterval = Duration.ofMinutes(5);
+
+	/**
+	 * Number of matches returned when the request sets no limit.
+	 */
+	private int defaultLimit = 20;
+
+	/**
+	 * Maximum number of matches returned by one request.
+	 */
+	private int maxLimit = 100;
+
+}
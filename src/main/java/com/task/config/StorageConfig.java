@@ -0,0 +1,24 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.task.storage.EntityStore;
+import com.task.storage.FileSystemEntityStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configures where and how the saved Users and Albums are stored.
+ */
+@Configuration
+@EnableConfigurationProperties(StorageProperties.class)
+public class StorageConfig {
+
+	@Bean
+	public EntityStore entityStore(final StorageProperties properties, final MeterRegistry meterRegistry) {
+		return new FileSystemEntityStore(properties, meterRegistry);
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.task.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Location, write and read settings of the files where the saved Users and
+ * Albums are stored.
+ */
+@Data
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+
+	/**
+	 * Root directory of the stored files.
+	 */
+	private Path root = Path.of("data");
+
+	/**
+	 * Number of shard directory levels (256 directories each) between the format
+	 * directory and the files. 0 keeps all the files in one flat directory.
+	 */
+	private int shardDepth = 2;
+
+	/**
+	 * Whether every file is flushed to the storage device before it is renamed
+	 * into place, and its directory after the rename.
+	 */
+	private boolean fsync = false;
+
+	/**
+	 * Whether GET by ID serves the stored JSON file instead of calling the API.
+	 */
+	private boolean localReads = true;
+
+	/**
+	 * Age up to which a stored file is served instead of calling the API.
+	 */
+	private Duration maxAge = Duration.ofMinutes(5);
+
+	/**
+	 * Age up to which a stored file is served when the API call fails.
+	 */
+	private Duration maxStale = Duration.ofDays(1);
+
+}
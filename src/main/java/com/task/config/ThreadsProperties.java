@@ -0,0 +1,24 @@
+package com.task.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings of the threads that serve the requests and run the upstream calls
+ * and file writes of the blocking stack.
+ */
+@Data
+@ConfigurationProperties(prefix = "threads")
+public class ThreadsProperties {
+
+	/**
+	 * Whether Tomcat, the asynchronous request processing and the worker pools
+	 * run their tasks on virtual threads instead of platform threads. The pool
+	 * sizes still bound the number of tasks running at the same time. Needs
+	 * Java 21 or later at runtime, and is slower than the platform threads on
+	 * the Tomcat managed by Spring Boot 2.4, see {@link ThreadsConfig}.
+	 */
+	private boolean virtual = false;
+
+}
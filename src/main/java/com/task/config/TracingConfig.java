@@ -0,0 +1,24 @@
+package com.task.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.task.tracing.SpanLogHandler;
+
+import brave.handler.SpanHandler;
+
+/**
+ * Configures the in-process export of the trace spans to the log, enabled
+ * with <code>tracing.log-spans=true</code>.
+ */
+@Configuration
+public class TracingConfig {
+
+	@Bean
+	@ConditionalOnProperty(prefix = "tracing", name = "log-spans", havingValue = "true")
+	public SpanHandler spanLogHandler() {
+		return new SpanLogHandler();
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.task.config;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs every task on a new virtual thread instead of pooling the threads, with
+ * a semaphore bounding the number of tasks running at the same time. A queued
+ * task waits for its permit on its own virtual thread, in submission order,
+ * and a hand-off executor rejects the task instead when no permit is free.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+	private final ThreadFactory threadFactory;
+
+	private final int maxRunning;
+
+	private final Semaphore permits;
+
+	private final boolean queueing;
+
+	private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private volatile boolean shutdown;
+
+	/**
+	 * @param threadFactory the virtual thread factory
+	 * @param maxRunning    the maximum number of tasks running at the same time
+	 * @param queueing      whether the tasks over the bound wait for a permit
+	 *                      or are rejected
+	 */
+	VirtualThreadExecutor(final ThreadFactory threadFactory, final int maxRunning, final boolean queueing) {
+		this.threadFactory = threadFactory;
+		this.maxRunning = maxRunning;
+		this.permits = new Semaphore(maxRunning, true);
+		this.queueing = queueing;
+	}
+
+	@Override
+	public void execute(final Runnable task) {
+
+		if (!queueing && !permits.tryAcquire()) {
+			throw new RejectedExecutionException("All " + maxRunning + " tasks are running");
+		}
+
+		boolean started = false;
+		lock.lock();
+		try {
+			if (shutdown) {
+				throw new RejectedExecutionException("The executor is shut down");
+			}
+			Thread thread = threadFactory.newThread(() -> run(task));
+			threads.add(thread);
+			thread.start();
+			started = true;
+		} finally {
+			lock.unlock();
+			if (!started && !queueing) {
+				permits.release();
+			}
+		}
+	}
+
+	private void run(final Runnable task) {
+		try {
+			if (queueing) {
+				permits.acquire();
+			}
+			try {
+				task.run();
+			} finally {
+				permits.release();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			threads.remove(Thread.currentThread());
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		lock.lock();
+		try {
+			shutdown = true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops accepting tasks and interrupts the running and queued ones. The
+	 * queued tasks are dropped without being returned.
+	 */
+	@Override
+	public List<Runnable> shutdownNow() {
+		shutdown();
+		threads.forEach(Thread::interrupt);
+		return List.of();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return shutdown && threads.isEmpty();
+	}
+
+	@Override
+	public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (Thread thread : threads) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				break;
+			}
+			TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+		}
+		return isTerminated();
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.task.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Configures the non-blocking Reactor Netty client used by the reactive stack
+ * (<code>reactive</code> profile) to call the JSON Placeholder API. It reuses
+ * the <code>upstream.http.*</code> pool, timeout and compression settings.
+ */
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+	/**
+	 * Reactor Netty keeps one pool per remote address, so the per-route limit is
+	 * the pool size. The pool gauges are exposed as
+	 * <code>reactor.netty.connection.provider.*</code> metrics.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider upstreamConnectionProvider(final HttpClientProperties properties) {
+
+		return ConnectionProvider.builder("upstream").maxConnections(properties.getMaxPerRoute())
+				.pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+				.pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+				.maxIdleTime(properties.getIdleTimeout()).evictInBackground(properties.getIdleTimeout())
+				.metrics(true).build();
+	}
+
+	@Bean
+	public WebClient upstreamWebClient(final WebClient.Builder builder,
+			final ConnectionProvider upstreamConnectionProvider, final HttpClientProperties properties) {
+
+		HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+				.responseTimeout(properties.getReadTimeout()).compress(properties.isCompression());
+
+		return builder.baseUrl(properties.getBaseUrl()).clientConnector(new ReactorClientHttpConnector(httpClient))
+				.build();
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.task.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories and executors of the worker pools. Threads are named after
+ * the pool and numbered from 1, and never keep the JVM alive. Platform threads
+ * are pooled, while virtual threads are never pooled: every task gets a new
+ * one and a semaphore bounds how many run at the same time. The build targets
+ * Java 11, so the virtual threads are created through reflection and are only
+ * available when the application runs on Java 21 or later.
+ */
+public final class WorkerThreads {
+
+	private WorkerThreads() {
+	}
+
+	/**
+	 * Creates daemon platform threads.
+	 *
+	 * @param name the pool name
+	 * @return the thread factory
+	 */
+	public static ThreadFactory platform(final String name) {
+
+		AtomicInteger threadCount = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Creates virtual threads, which do not hold a carrier thread while they
+	 * block on I/O.
+	 *
+	 * @param name the pool name
+	 * @return the thread factory
+	 */
+	public static ThreadFactory virtual(final String name) {
+
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Virtual threads need Java 21 or later, running on Java "
+					+ System.getProperty("java.specification.version"), e);
+		}
+	}
+
+	/**
+	 * Tells whether the running JVM creates virtual threads.
+	 *
+	 * @return true on Java 21 or later
+	 */
+	public static boolean isVirtualSupported() {
+
+		try {
+			virtual("probe");
+			return true;
+		} catch (IllegalStateException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates a fixed pool of platform threads.
+	 *
+	 * @param name the pool name
+	 * @param size the number of tasks running at the same time
+	 * @return the executor
+	 */
+	public static ExecutorService pool(final String name, final int size) {
+		return Executors.newFixedThreadPool(size, platform(name));
+	}
+
+	/**
+	 * Creates the executor selected by <code>threads.virtual</code>: a fixed
+	 * pool of platform threads, or a new virtual thread per task. Either way at
+	 * most <code>size</code> tasks run at the same time and the others wait in
+	 * submission order.
+	 *
+	 * @param name       the pool name
+	 * @param size       the number of tasks running at the same time
+	 * @param properties the thread settings
+	 * @return the executor
+	 * @throws IllegalStateException if virtual threads are selected and the JVM
+	 *                               is older than Java 21
+	 */
+	public static ExecutorService pool(final String name, final int size, final ThreadsProperties properties) {
+		return properties.isVirtual() ? new VirtualThreadExecutor(virtual(name), size, true) : pool(name, size);
+	}
+
+	/**
+	 * Creates a hand-off pool of platform threads, which starts threads up to
+	 * its size, lets them go after a minute idle and rejects the tasks over it.
+	 *
+	 * @param name the pool name
+	 * @param size the number of tasks running at the same time
+	 * @return the executor
+	 */
+	public static ExecutorService handoffPool(final String name, final int size) {
+		return new ThreadPoolExecutor(0, size, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), platform(name));
+	}
+
+	/**
+	 * Creates the hand-off executor selected by <code>threads.virtual</code>,
+	 * which rejects the tasks submitted while <code>size</code> tasks are
+	 * running.
+	 *
+	 * @param name       the pool name
+	 * @param size       the number of tasks running at the same time
+	 * @param properties the thread settings
+	 * @return the executor
+	 * @throws IllegalStateException if virtual threads are selected and the JVM
+	 *                               is older than Java 21
+	 */
+	public static ExecutorService handoffPool(final String name, final int size,
+			final ThreadsProperties properties) {
+		return properties.isVirtual() ? new VirtualThreadExecutor(virtual(name), size, false)
+				: handoffPool(name, size);
+	}
+
+}
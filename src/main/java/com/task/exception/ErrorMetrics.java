@@ -0,0 +1,56 @@
+package com.task.exception;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Builds the service exceptions and counts them: empty JSON Placeholder API
+ * responses as the <code>api.response.empty</code> counter, tagged by
+ * collection, and failed file saves as the <code>save.file.failures</code>
+ * counter, tagged by collection and format.
+ */
+@Component
+public class ErrorMetrics {
+
+	private final MeterRegistry meterRegistry;
+
+	@Autowired
+	public ErrorMetrics(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Counts an API response without body.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param message    the exception message
+	 * @return the exception to throw
+	 */
+	public ApiResponseNotValidException emptyBody(final String collection, final String message) {
+
+		Counter.builder("api.response.empty").description("JSON Placeholder API responses without body")
+				.tag("collection", collection).register(meterRegistry).increment();
+		return new ApiResponseNotValidException(message);
+	}
+
+	/**
+	 * Counts a file that was not saved.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param format     the file format, e.g. <code>json</code>
+	 * @param message    the exception message
+	 * @param cause      the write failure
+	 * @return the exception to throw
+	 */
+	public SaveFileException saveFailed(final String collection, final String format, final String message,
+			final Throwable cause) {
+
+		Counter.builder("save.file.failures").description("Entity files that were not saved")
+				.tags("collection", collection, "format", format).register(meterRegistry).increment();
+		return new SaveFileException(message, cause);
+	}
+
+}
@@ -4,7 +4,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,7 +21,35 @@ public class ExceptionHandlerController {
 	public ResponseEntity<ApiErrorResponse> handleApiException(final Exception ex) {
 
 		log.error("Error caused by: {}", ex.getMessage());
-		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+		return buildResponse(HttpStatus.BAD_REQUEST, ex);
+	}
+
+	@ExceptionHandler({ HttpServerErrorException.class, ResourceAccessException.class,
+			WebClientRequestException.class })
+	public ResponseEntity<ApiErrorResponse> handleUpstreamException(final Exception ex) {
+
+		log.error("API call failed: {}", ex.getMessage());
+		return buildResponse(HttpStatus.BAD_GATEWAY, ex);
+	}
+
+	@ExceptionHandler(WebClientResponseException.class)
+	public ResponseEntity<ApiErrorResponse> handleUpstreamResponse(final WebClientResponseException ex) {
+
+		if (ex.getStatusCode().is5xxServerError()) {
+			return handleUpstreamException(ex);
+		}
+		return handleApiException(ex);
+	}
+
+	@ExceptionHandler(UpstreamUnavailableException.class)
+	public ResponseEntity<ApiErrorResponse> handleUpstreamUnavailable(final UpstreamUnavailableException ex) {
+
+		log.warn("API call rejected: {}", ex.getMessage());
+		return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex);
+	}
+
+	private ResponseEntity<ApiErrorResponse> buildResponse(final HttpStatus status, final Exception ex) {
+		return ResponseEntity.status(status)
 				.body(ApiErrorResponse.builder().error(ex.getClass().getSimpleName()).message(ex.getMessage()).build());
 	}
 
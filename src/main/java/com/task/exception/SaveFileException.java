@@ -4,6 +4,10 @@ public class SaveFileException extends Exception {
 
 	private static final long serialVersionUID = -3846263131961109743L;
 
+	public SaveFileException(String message) {
+		super(message);
+	}
+
 	public SaveFileException(String message, Throwable cause) {
 		super(message, cause);
 	}
@@ -0,0 +1,17 @@
+package com.task.exception;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when a call to the JSON Placeholder API is rejected without being
+ * sent, because its circuit breaker is open or its bulkhead is full. It is a
+ * RestClientException so the callers fall back as for any other failed call.
+ */
+public class UpstreamUnavailableException extends RestClientException {
+
+	private static final long serialVersionUID = 3170937617264587452L;
+
+	public UpstreamUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
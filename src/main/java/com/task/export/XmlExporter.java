@@ -0,0 +1,66 @@
+package com.task.export;
+
+import java.io.ByteArrayOutputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.task.album.Album;
+import com.task.user.User;
+
+/**
+ * Exports Users and Albums to XML. The JAXBContext is built once at startup
+ * and every thread reuses its own Marshaller, since marshallers are not
+ * thread-safe.
+ */
+@Component
+public class XmlExporter {
+
+	private final JAXBContext context;
+
+	private final boolean formatted;
+
+	private final ThreadLocal<Marshaller> marshallers = ThreadLocal.withInitial(this::createMarshaller);
+
+	/**
+	 * Builds the shared JAXBContext.
+	 *
+	 * @param formatted whether the XML is indented (true) or compact (false)
+	 */
+	public XmlExporter(@Value("${xml.export.formatted:true}") final boolean formatted) {
+		this.formatted = formatted;
+		try {
+			this.context = JAXBContext.newInstance(User.class, Album.class);
+		} catch (JAXBException e) {
+			throw new IllegalStateException("Error creating the XML export context", e);
+		}
+	}
+
+	/**
+	 * Marshals the value to XML.
+	 *
+	 * @param value the User or Album
+	 * @return the XML document
+	 * @throws JAXBException if the value cannot be marshalled
+	 */
+	public byte[] export(final Object value) throws JAXBException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		marshallers.get().marshal(value, out);
+		return out.toByteArray();
+	}
+
+	private Marshaller createMarshaller() {
+		try {
+			Marshaller marshaller = context.createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+			return marshaller;
+		} catch (JAXBException e) {
+			throw new IllegalStateException("Error creating the XML marshaller", e);
+		}
+	}
+
+}
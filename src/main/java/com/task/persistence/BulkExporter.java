@@ -0,0 +1,88 @@
+package com.task.persistence;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.config.PersistenceProperties;
+import com.task.config.WorkerThreads;
+import com.task.exception.SaveFileException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes whole collections of Users or Albums to disk in the background. The
+ * entities of every export share a pool of <code>export-parallelism</code>
+ * threads, which bounds the number of files written at the same time.
+ */
+@Slf4j
+public class BulkExporter {
+
+	private final ExecutorService writers;
+
+	private final Cache<String, ExportJob> jobs;
+
+	public BulkExporter(final PersistenceProperties properties) {
+		this(properties, WorkerThreads.pool("export", properties.getExportParallelism()));
+	}
+
+	public BulkExporter(final PersistenceProperties properties, final ExecutorService writers) {
+
+		this.jobs = Caffeine.newBuilder().expireAfterWrite(properties.getStatusRetention())
+				.maximumSize(properties.getStatusMaximumSize()).build();
+
+		this.writers = writers;
+	}
+
+	/**
+	 * Starts writing the given entities.
+	 *
+	 * @param <T>         the entity type
+	 * @param description the export description
+	 * @param entities    the entities to write
+	 * @param write       the file writes of one entity
+	 * @return the running export
+	 */
+	public <T> ExportJob start(final String description, final List<T> entities, final EntityWrite<T> write) {
+
+		ExportJob job = new ExportJob(description, entities.size());
+		jobs.put(job.getId(), job);
+
+		for (T entity : entities) {
+			writers.execute(() -> {
+				try {
+					write.write(entity);
+					job.entityWritten();
+				} catch (SaveFileException | RuntimeException e) {
+					log.error("Error exporting {}: {}", description, e.getMessage());
+					job.entityFailed(e);
+				}
+			});
+		}
+		return job;
+	}
+
+	/**
+	 * Gets the export with the given ID.
+	 *
+	 * @param jobId the job ID
+	 * @return the export, or empty if it is unknown or expired
+	 */
+	public Optional<ExportJob> getJob(final String jobId) {
+		return Optional.ofNullable(jobs.getIfPresent(jobId));
+	}
+
+	/**
+	 * Stops accepting exports and waits for the running ones to finish.
+	 */
+	public void shutdown() throws InterruptedException {
+		writers.shutdown();
+		if (!writers.awaitTermination(30, TimeUnit.SECONDS)) {
+			writers.shutdownNow();
+		}
+	}
+
+}
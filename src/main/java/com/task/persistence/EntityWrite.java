@@ -0,0 +1,15 @@
+package com.task.persistence;
+
+import com.task.exception.SaveFileException;
+
+/**
+ * The file writes of one entity of a bulk export.
+ *
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface EntityWrite<T> {
+
+	void write(T entity) throws SaveFileException;
+
+}
@@ -0,0 +1,88 @@
+package com.task.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * Progress of a bulk export, reported by the <code>/exports/{jobId}</code>
+ * endpoint.
+ */
+@Getter
+public class ExportJob {
+
+	public enum Status {
+		RUNNING, COMPLETED, COMPLETED_WITH_ERRORS
+	}
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final String description;
+
+	private final int total;
+
+	private final Instant startedAt = Instant.now();
+
+	private volatile Instant completedAt;
+
+	private volatile String lastError;
+
+	private final AtomicInteger written = new AtomicInteger();
+
+	private final AtomicInteger failed = new AtomicInteger();
+
+	public ExportJob(final String description, final int total) {
+		this.description = description;
+		this.total = total;
+		if (total == 0) {
+			completedAt = startedAt;
+		}
+	}
+
+	public int getWritten() {
+		return written.get();
+	}
+
+	public int getFailed() {
+		return failed.get();
+	}
+
+	public Status getStatus() {
+		if (completedAt == null) {
+			return Status.RUNNING;
+		}
+		return failed.get() == 0 ? Status.COMPLETED : Status.COMPLETED_WITH_ERRORS;
+	}
+
+	/**
+	 * Gets the number of entities written per second since the export started.
+	 *
+	 * @return the export throughput
+	 */
+	public double getThroughput() {
+		Instant end = completedAt != null ? completedAt : Instant.now();
+		long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+		return written.get() * 1000.0 / millis;
+	}
+
+	void entityWritten() {
+		written.incrementAndGet();
+		completeIfDone();
+	}
+
+	void entityFailed(final Exception cause) {
+		lastError = cause.getMessage();
+		failed.incrementAndGet();
+		completeIfDone();
+	}
+
+	private void completeIfDone() {
+		if (written.get() + failed.get() == total) {
+			completedAt = Instant.now();
+		}
+	}
+
+}
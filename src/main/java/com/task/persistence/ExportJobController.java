@@ -0,0 +1,24 @@
+package com.task.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/exports")
+public class ExportJobController {
+
+	@Autowired
+	private BulkExporter bulkExporter;
+
+	@GetMapping(path = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ExportJob> getExportJob(@PathVariable(name = "jobId") final String jobId) {
+
+		return ResponseEntity.of(bulkExporter.getJob(jobId));
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.task.persistence;
+
+import com.task.exception.SaveFileException;
+
+/**
+ * The file writes of a save job.
+ */
+@FunctionalInterface
+public interface FileWrite {
+
+	void write() throws SaveFileException;
+
+}
@@ -0,0 +1,253 @@
+package com.task.persistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.config.PersistenceProperties;
+import com.task.config.WorkerThreads;
+import com.task.exception.SaveFileException;
+import com.task.storage.EntityStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the saved Users and Albums to disk in the background. Save jobs are
+ * queued in a bounded queue and a pool of workers drains it in batches, so the
+ * request threads do not block on disk I/O. Each batch is one group commit of
+ * the entity store: with <code>storage.fsync</code> its files are flushed
+ * together and its jobs are only marked written once the whole batch is
+ * durable.
+ * <p>
+ * The queue depth, write latency and failures are exposed as the
+ * <code>persistence.*</code> metrics and the status of every job can be looked
+ * up by its ID for a while after it is submitted.
+ */
+@Slf4j
+public class PersistencePipeline {
+
+	private static final long POLL_TIMEOUT_MILLIS = 200;
+
+	private final PersistenceProperties properties;
+
+	private final EntityStore entityStore;
+
+	private final BlockingQueue<SaveJob<?>> queue;
+
+	private final Cache<String, SaveJob<?>> jobs;
+
+	private final ExecutorService workers;
+
+	private final Timer writeTimer;
+
+	private final Timer commitTimer;
+
+	private final Counter failureCounter;
+
+	private volatile boolean running = true;
+
+	public PersistencePipeline(final PersistenceProperties properties, final EntityStore entityStore,
+			final MeterRegistry meterRegistry) {
+		this(properties, entityStore, meterRegistry, WorkerThreads.pool("persistence", properties.getWorkers()));
+	}
+
+	public PersistencePipeline(final PersistenceProperties properties, final EntityStore entityStore,
+			final MeterRegistry meterRegistry, final ExecutorService workers) {
+
+		this.properties = properties;
+		this.entityStore = entityStore;
+		this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+		this.jobs = Caffeine.newBuilder().expireAfterWrite(properties.getStatusRetention())
+				.maximumSize(properties.getStatusMaximumSize()).build();
+
+		Gauge.builder("persistence.queue.depth", queue, BlockingQueue::size)
+				.description("Save jobs waiting to be written").register(meterRegistry);
+		this.writeTimer = Timer.builder("persistence.write").description("Time spent writing the files of a save job")
+				.register(meterRegistry);
+		this.commitTimer = Timer.builder("persistence.commit")
+				.description("Time spent making the files of a batch durable").register(meterRegistry);
+		this.failureCounter = Counter.builder("persistence.write.failures").description("Save jobs that failed")
+				.register(meterRegistry);
+
+		this.workers = workers;
+		for (int i = 0; i < properties.getWorkers(); i++) {
+			workers.execute(this::work);
+		}
+	}
+
+	/**
+	 * Queues the file writes of a User or Album.
+	 *
+	 * @param <T>         the saved value type
+	 * @param description the job description, used in the status and errors
+	 * @param value       the saved value
+	 * @param write       the file writes
+	 * @return the queued job
+	 * @throws SaveFileException if the queue stays full for the offer timeout
+	 */
+	public <T> SaveJob<T> submit(final String description, final T value, final FileWrite write)
+			throws SaveFileException {
+
+		SaveJob<T> job = new SaveJob<>(description, value, write);
+		jobs.put(job.getId(), job);
+		try {
+			if (running && queue.offer(job, properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+				return job;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		jobs.invalidate(job.getId());
+		throw new SaveFileException("Error saving " + description + ". Persistence queue is full.");
+	}
+
+	/**
+	 * Waits until the files of the job are written, up to the durability timeout.
+	 *
+	 * @param <T> the saved value type
+	 * @param job the save job
+	 * @return the saved value
+	 * @throws SaveFileException if the files are not written correctly or in time
+	 */
+	public <T> T await(final SaveJob<T> job) throws SaveFileException {
+
+		try {
+			return job.getCompletion().get(properties.getDurabilityTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof SaveFileException) {
+				throw (SaveFileException) e.getCause();
+			}
+			throw new SaveFileException("Error saving " + job.getDescription(), e.getCause());
+		} catch (TimeoutException e) {
+			throw new SaveFileException("Timed out waiting for " + job.getDescription() + " to be saved", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SaveFileException("Interrupted while waiting for " + job.getDescription(), e);
+		}
+	}
+
+	/**
+	 * Gets the save job with the given ID.
+	 *
+	 * @param jobId the job ID
+	 * @return the job, or empty if it is unknown or expired
+	 */
+	public Optional<SaveJob<?>> getJob(final String jobId) {
+		return Optional.ofNullable(jobs.getIfPresent(jobId));
+	}
+
+	/**
+	 * Stops accepting jobs and waits for the workers to write the queued ones.
+	 */
+	public void shutdown() throws InterruptedException {
+		running = false;
+		workers.shutdown();
+		if (!workers.awaitTermination(properties.getDurabilityTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+			log.warn("Persistence pipeline stopped with {} save jobs still queued", queue.size());
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Worker loop: takes the first queued job, drains up to a batch of the jobs
+	 * queued behind it and writes them in one group commit. Once stopped it
+	 * keeps writing until the queue is empty.
+	 */
+	private void work() {
+
+		List<SaveJob<?>> batch = new ArrayList<>(properties.getBatchSize());
+		List<SaveJob<?>> staged = new ArrayList<>(properties.getBatchSize());
+
+		while (running || !queue.isEmpty()) {
+			try {
+				SaveJob<?> first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, properties.getBatchSize() - 1);
+				entityStore.begin();
+				try {
+					for (SaveJob<?> job : batch) {
+						if (write(job)) {
+							staged.add(job);
+						}
+					}
+				} finally {
+					commit(staged);
+				}
+				batch.clear();
+				staged.clear();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stages the files of a job in the current group commit.
+	 *
+	 * @param job the save job
+	 * @return whether the files were staged, otherwise the job has failed
+	 */
+	private boolean write(final SaveJob<?> job) {
+
+		long start = System.nanoTime();
+		try {
+			job.getWrite().write();
+			return true;
+		} catch (SaveFileException | RuntimeException e) {
+			failed(job, e);
+			return false;
+		} finally {
+			writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Commits the files staged by the batch and marks its jobs written, or
+	 * fails them all if the batch could not be made durable.
+	 *
+	 * @param staged the jobs whose files were staged
+	 */
+	private void commit(final List<SaveJob<?>> staged) {
+
+		Exception failure = null;
+		long start = System.nanoTime();
+		try {
+			entityStore.commit();
+		} catch (IOException | RuntimeException e) {
+			failure = e;
+		}
+		commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		if (failure == null) {
+			staged.forEach(SaveJob::written);
+		} else {
+			SaveFileException cause = new SaveFileException("Error committing the batch: " + failure.getMessage(),
+					failure);
+			staged.forEach(job -> failed(job, cause));
+		}
+	}
+
+	private void failed(final SaveJob<?> job, final Exception e) {
+		log.error("Error writing {}: {}", job.getDescription(), e.getMessage());
+		failureCounter.increment();
+		job.failed(e);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.task.persistence;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+/**
+ * A User or Album queued to be written to disk, and the status reported by the
+ * <code>/saves/{jobId}</code> endpoint.
+ *
+ * @param <T> the saved value type
+ */
+@Getter
+public class SaveJob<T> {
+
+	public enum Status {
+		QUEUED, WRITTEN, FAILED
+	}
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final String description;
+
+	@JsonIgnore
+	private final T value;
+
+	@JsonIgnore
+	private final FileWrite write;
+
+	@JsonIgnore
+	private final CompletableFuture<T> completion = new CompletableFuture<>();
+
+	private final Instant submittedAt = Instant.now();
+
+	private volatile Instant completedAt;
+
+	private volatile Status status = Status.QUEUED;
+
+	private volatile String error;
+
+	public SaveJob(final String description, final T value, final FileWrite write) {
+		this.description = description;
+		this.value = value;
+		this.write = write;
+	}
+
+	void written() {
+		completedAt = Instant.now();
+		status = Status.WRITTEN;
+		completion.complete(value);
+	}
+
+	void failed(final Exception cause) {
+		completedAt = Instant.now();
+		error = cause.getMessage();
+		status = Status.FAILED;
+		completion.completeExceptionally(cause);
+	}
+
+}
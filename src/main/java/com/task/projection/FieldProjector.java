@@ -0,0 +1,76 @@
+package com.task.projection;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.task.album.Album;
+import com.task.user.User;
+
+/**
+ * Serializes Users and Albums with only the requested top-level properties.
+ * The other properties are skipped by a Jackson property filter while writing,
+ * so no full object is built and then trimmed. Nested objects such as the
+ * Address of a User are written whole when requested.
+ */
+@Component
+public class FieldProjector {
+
+	private static final String FILTER_ID = "fields";
+
+	private static final Set<Class<?>> PROJECTED_TYPES = Set.of(User.class, Album.class);
+
+	private final ObjectMapper mapper;
+
+	@Autowired
+	public FieldProjector(final ObjectMapper objectMapper) {
+
+		this.mapper = objectMapper.copy();
+		this.mapper.setAnnotationIntrospector(AnnotationIntrospector.pair(new ProjectionIntrospector(),
+				objectMapper.getSerializationConfig().getAnnotationIntrospector()));
+	}
+
+	/**
+	 * Writes the value as JSON, keeping only the given properties of the Users
+	 * and Albums it holds.
+	 *
+	 * @param value  a User, an Album or a collection of them
+	 * @param fields the properties to keep
+	 * @return the JSON bytes
+	 * @throws JsonProcessingException if the value cannot be serialized
+	 */
+	public byte[] write(final Object value, final Set<String> fields) throws JsonProcessingException {
+
+		SimpleFilterProvider filters = new SimpleFilterProvider().addFilter(FILTER_ID,
+				SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+		return mapper.writer(filters).writeValueAsBytes(value);
+	}
+
+	/**
+	 * Attaches the projection filter to the projected types only, so the
+	 * entities they hold are not filtered.
+	 */
+	private static class ProjectionIntrospector extends NopAnnotationIntrospector {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Object findFilterId(final Annotated annotated) {
+			if (annotated instanceof AnnotatedClass && PROJECTED_TYPES.contains(annotated.getRawType())) {
+				return FILTER_ID;
+			}
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.task.projection;
+
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Page slicing of the list endpoints. Pages are numbered from 0; a request with
+ * neither <code>page</code> nor <code>size</code> gets the whole list.
+ */
+public final class Paging {
+
+	/**
+	 * Page size used when only the page number is requested.
+	 */
+	public static final int DEFAULT_SIZE = 20;
+
+	private Paging() {
+	}
+
+	/**
+	 * Gets one page of a list, as a view of it.
+	 *
+	 * @param <T>  the element type
+	 * @param list the whole list
+	 * @param page the page number, or <code>null</code>
+	 * @param size the page size, or <code>null</code>
+	 * @return the requested page
+	 * @throws IllegalArgumentException if the page is negative or the size is
+	 *                                  not positive
+	 */
+	public static <T> List<T> slice(final List<T> list, final Integer page, final Integer size) {
+
+		if (page == null && size == null) {
+			return list;
+		}
+		long from = Math.min(offset(page, size), list.size());
+		long to = Math.min(from + pageSize(size), list.size());
+		return list.subList((int) from, (int) to);
+	}
+
+	/**
+	 * Gets one page of a stream of elements.
+	 *
+	 * @param <T>  the element type
+	 * @param flux the whole stream
+	 * @param page the page number, or <code>null</code>
+	 * @param size the page size, or <code>null</code>
+	 * @return the requested page, or an IllegalArgumentException if the page is
+	 *         negative or the size is not positive
+	 */
+	public static <T> Flux<T> slice(final Flux<T> flux, final Integer page, final Integer size) {
+
+		if (page == null && size == null) {
+			return flux;
+		}
+		try {
+			return flux.skip(offset(page, size)).take(pageSize(size));
+		} catch (IllegalArgumentException e) {
+			return Flux.error(e);
+		}
+	}
+
+	private static long offset(final Integer page, final Integer size) {
+		if (page != null && page < 0) {
+			throw new IllegalArgumentException("The page cannot be negative.");
+		}
+		return (long) (page == null ? 0 : page) * pageSize(size);
+	}
+
+	private static int pageSize(final Integer size) {
+		if (size != null && size < 1) {
+			throw new IllegalArgumentException("The page size must be positive.");
+		}
+		return size == null ? DEFAULT_SIZE : size;
+	}
+
+}
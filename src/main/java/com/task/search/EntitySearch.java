@@ -0,0 +1,193 @@
+package com.task.search;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.client.CollectionLookup;
+import com.task.config.SearchProperties;
+import com.task.exception.ApiResponseNotValidException;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.SnapshotStore;
+import com.task.user.User;
+import com.task.user.UserService;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers the /find endpoints from in-memory indexes of the Users and Albums
+ * instead of calling the API. Each index is built from its collection on the
+ * first search and rebuilt every <code>search.refresh-interval</code>; a failed
+ * rebuild keeps serving the previous index. An index remembers the version of
+ * the collection's {@link SnapshotStore} it was built at, so the next search
+ * after a create, update or delete rebuilds it instead of serving the entities
+ * as they were before the write.
+ */
+@Component
+@Slf4j
+public class EntitySearch {
+
+	private static final Map<String, Function<User, String>> USER_FIELDS = Map.of("name", User::getName, "username",
+			User::getUsername, "email", User::getEmail);
+
+	private static final Map<String, Function<Album, String>> ALBUM_FIELDS = Map.of("title", Album::getTitle);
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AlbumService albumService;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
+	@Autowired
+	private SearchProperties properties;
+
+	private volatile Built<User> userIndex;
+
+	private volatile Built<Album> albumIndex;
+
+	/**
+	 * Guards the builds on search. A lock rather than a monitor, so a virtual
+	 * thread waiting on the API for the build does not pin its carrier.
+	 */
+	private final ReentrantLock buildLock = new ReentrantLock();
+
+	/**
+	 * Searches the Users.
+	 *
+	 * @param field  <code>name</code>, <code>username</code>,
+	 *               <code>email</code>, or <code>null</code> for any of them
+	 * @param query  the query
+	 * @param match  the match mode name, <code>exact</code> by default
+	 * @param offset the number of matches to skip, 0 by default
+	 * @param limit  the maximum number of matches, capped at
+	 *               <code>search.max-limit</code>
+	 * @return the requested page of matching Users
+	 * @throws ApiResponseNotValidException if the index must be built and the
+	 *                                      request body is empty
+	 */
+	public SearchResult<User> searchUsers(final String field, final String query, final String match,
+			final Integer offset, final Integer limit) throws ApiResponseNotValidException {
+
+		return search(getUserIndex(), field, query, match, offset, limit);
+	}
+
+	/**
+	 * Searches the Albums by title.
+	 *
+	 * @param query  the query
+	 * @param match  the match mode name, <code>exact</code> by default
+	 * @param offset the number of matches to skip, 0 by default
+	 * @param limit  the maximum number of matches, capped at
+	 *               <code>search.max-limit</code>
+	 * @return the requested page of matching Albums
+	 * @throws ApiResponseNotValidException if the index must be built and the
+	 *                                      request body is empty
+	 */
+	public SearchResult<Album> searchAlbums(final String query, final String match, final Integer offset,
+			final Integer limit) throws ApiResponseNotValidException {
+
+		return search(getAlbumIndex(), "title", query, match, offset, limit);
+	}
+
+	/**
+	 * Rebuilds both indexes from the API.
+	 */
+	@Scheduled(initialDelayString = "${search.refresh-interval:PT5M}",
+			fixedDelayString = "${search.refresh-interval:PT5M}")
+	public void refresh() {
+		try {
+			userIndex = build(entitySnapshots.getUsers(), userService::getUsers, USER_FIELDS);
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			log.warn("Error refreshing the User search index: {}", e.getMessage());
+		}
+		try {
+			albumIndex = build(entitySnapshots.getAlbums(), albumService::getAlbums, ALBUM_FIELDS);
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			log.warn("Error refreshing the Album search index: {}", e.getMessage());
+		}
+	}
+
+	private SearchIndex<User> getUserIndex() throws ApiResponseNotValidException {
+		SnapshotStore<User> store = entitySnapshots.getUsers();
+		Built<User> built = userIndex;
+		if (isStale(built, store)) {
+			buildLock.lock();
+			try {
+				if (isStale(userIndex, store)) {
+					userIndex = build(store, userService::getUsers, USER_FIELDS);
+				}
+				built = userIndex;
+			} finally {
+				buildLock.unlock();
+			}
+		}
+		return built.getIndex();
+	}
+
+	private SearchIndex<Album> getAlbumIndex() throws ApiResponseNotValidException {
+		SnapshotStore<Album> store = entitySnapshots.getAlbums();
+		Built<Album> built = albumIndex;
+		if (isStale(built, store)) {
+			buildLock.lock();
+			try {
+				if (isStale(albumIndex, store)) {
+					albumIndex = build(store, albumService::getAlbums, ALBUM_FIELDS);
+				}
+				built = albumIndex;
+			} finally {
+				buildLock.unlock();
+			}
+		}
+		return built.getIndex();
+	}
+
+	private static boolean isStale(final Built<?> built, final SnapshotStore<?> store) {
+		return built == null || built.getVersion() != store.version();
+	}
+
+	/**
+	 * Builds an index, reading the version before the collection so a write
+	 * during the build leaves the index stale.
+	 */
+	private static <T> Built<T> build(final SnapshotStore<T> store, final CollectionLookup<T> collection,
+			final Map<String, Function<T, String>> fields) throws ApiResponseNotValidException {
+
+		long version = store.version();
+		return new Built<>(new SearchIndex<>(collection.get(), fields), version);
+	}
+
+	private <T> SearchResult<T> search(final SearchIndex<T> index, final String field, final String query,
+			final String match, final Integer offset, final Integer limit) {
+
+		if (offset != null && offset < 0) {
+			throw new IllegalArgumentException("The offset cannot be negative.");
+		}
+		if (limit != null && limit < 0) {
+			throw new IllegalArgumentException("The limit cannot be negative.");
+		}
+		MatchMode mode = match == null ? MatchMode.EXACT : MatchMode.parse(match);
+		int pageSize = Math.min(limit == null ? properties.getDefaultLimit() : limit, properties.getMaxLimit());
+
+		return index.search(field, query, mode, offset == null ? 0 : offset, pageSize);
+	}
+
+	@Value
+	private static class Built<T> {
+
+		SearchIndex<T> index;
+
+		long version;
+
+	}
+
+}
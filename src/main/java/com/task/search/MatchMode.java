@@ -0,0 +1,42 @@
+package com.task.search;
+
+import java.util.Locale;
+
+/**
+ * How a search query is matched against an indexed field. Every mode ignores
+ * case.
+ */
+public enum MatchMode {
+
+	/**
+	 * The whole field equals the query.
+	 */
+	EXACT,
+
+	/**
+	 * The field starts with the query.
+	 */
+	PREFIX,
+
+	/**
+	 * Every word of the query is a word of the field.
+	 */
+	TOKEN,
+
+	/**
+	 * The field contains the query.
+	 */
+	SUBSTRING;
+
+	/**
+	 * Parses a match mode ignoring case.
+	 *
+	 * @param value the mode name, e.g. <code>prefix</code>
+	 * @return the match mode
+	 * @throws IllegalArgumentException if the mode is unknown
+	 */
+	public static MatchMode parse(final String value) {
+		return valueOf(value.trim().toUpperCase(Locale.ROOT));
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.task.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable in-memory index of a collection for exact, prefix, token and
+ * substring search on some text fields. Matches are kept as sorted positions
+ * in the collection, so a query only builds the entities of the requested page.
+ *
+ * @param <T> the entity type
+ */
+public class SearchIndex<T> {
+
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private final List<T> entities;
+
+	private final Map<String, FieldIndex> fields;
+
+	/**
+	 * Indexes the given entities.
+	 *
+	 * @param entities   the entities, in the order matches are returned
+	 * @param extractors the indexed fields by name
+	 */
+	public SearchIndex(final List<T> entities, final Map<String, Function<T, String>> extractors) {
+
+		this.entities = List.copyOf(entities);
+		this.fields = new HashMap<>();
+		extractors.forEach((name, extractor) -> fields.put(name, new FieldIndex(this.entities, extractor)));
+	}
+
+	/**
+	 * Searches the index.
+	 *
+	 * @param field  the field to search, or <code>null</code> for any field
+	 * @param query  the query
+	 * @param mode   how the query is matched
+	 * @param offset the number of matches to skip
+	 * @param limit  the maximum number of matches to return
+	 * @return the requested page of matches and the total number of matches
+	 * @throws IllegalArgumentException if the field is not indexed
+	 */
+	public SearchResult<T> search(final String field, final String query, final MatchMode mode, final int offset,
+			final int limit) {
+
+		Collection<FieldIndex> searched;
+		if (field == null) {
+			searched = fields.values();
+		} else if (fields.containsKey(field)) {
+			searched = List.of(fields.get(field));
+		} else {
+			throw new IllegalArgumentException("Unknown search field: " + field);
+		}
+
+		String normalized = normalize(query);
+		int[] positions = searched.stream().flatMapToInt(index -> IntStream.of(index.match(normalized, mode)))
+				.distinct().sorted().toArray();
+
+		List<T> items = Arrays.stream(positions).skip(offset).limit(limit).mapToObj(entities::get)
+				.collect(Collectors.toList());
+		return new SearchResult<>(items, positions.length);
+	}
+
+	/**
+	 * Gets the number of indexed entities.
+	 *
+	 * @return the number of entities
+	 */
+	public int size() {
+		return entities.size();
+	}
+
+	private static String normalize(final String value) {
+		return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static String[] tokenize(final String normalized) {
+		return Arrays.stream(TOKEN_SEPARATOR.split(normalized)).filter(token -> !token.isEmpty())
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * The indexes of one field: the sorted values for exact and prefix matches,
+	 * the words for token matches and the raw values for substring scans.
+	 */
+	private static class FieldIndex {
+
+		private static final int[] NONE = new int[0];
+
+		private final String[] values;
+
+		private final TreeMap<String, int[]> sortedValues = new TreeMap<>();
+
+		private final Map<String, int[]> tokens = new HashMap<>();
+
+		<T> FieldIndex(final List<T> entities, final Function<T, String> extractor) {
+
+			this.values = new String[entities.size()];
+			Map<String, List<Integer>> byValue = new HashMap<>();
+			Map<String, List<Integer>> byToken = new HashMap<>();
+
+			for (int position = 0; position < values.length; position++) {
+				values[position] = normalize(extractor.apply(entities.get(position)));
+				byValue.computeIfAbsent(values[position], key -> new ArrayList<>()).add(position);
+				for (String token : tokenize(values[position])) {
+					List<Integer> positions = byToken.computeIfAbsent(token, key -> new ArrayList<>());
+					if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+						positions.add(position);
+					}
+				}
+			}
+			byValue.forEach((value, positions) -> sortedValues.put(value, toArray(positions)));
+			byToken.forEach((token, positions) -> tokens.put(token, toArray(positions)));
+		}
+
+		int[] match(final String query, final MatchMode mode) {
+
+			switch (mode) {
+			case EXACT:
+				return sortedValues.getOrDefault(query, NONE);
+			case PREFIX:
+				return sortedValues.subMap(query, true, query + Character.MAX_VALUE, true).values().stream()
+						.flatMapToInt(IntStream::of).toArray();
+			case TOKEN:
+				return matchTokens(tokenize(query));
+			case SUBSTRING:
+				return IntStream.range(0, values.length).filter(position -> values[position].contains(query))
+						.toArray();
+			default:
+				throw new IllegalArgumentException("Unknown match mode: " + mode);
+			}
+		}
+
+		private int[] matchTokens(final String[] queryTokens) {
+
+			if (queryTokens.length == 0) {
+				return NONE;
+			}
+			int[] matches = tokens.getOrDefault(queryTokens[0], NONE);
+			for (int i = 1; i < queryTokens.length && matches.length > 0; i++) {
+				int[] next = tokens.getOrDefault(queryTokens[i], NONE);
+				matches = IntStream.of(matches).filter(position -> Arrays.binarySearch(next, position) >= 0)
+						.toArray();
+			}
+			return matches;
+		}
+
+		private static int[] toArray(final List<Integer> positions) {
+			return positions.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.task.search;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * One page of search matches.
+ *
+ * @param <T> the entity type
+ */
+@Value
+public class SearchResult<T> {
+
+	/**
+	 * The matches of the requested page, in collection order.
+	 */
+	List<T> items;
+
+	/**
+	 * The number of matches of the whole query.
+	 */
+	int total;
+
+}
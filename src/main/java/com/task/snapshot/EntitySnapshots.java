@@ -0,0 +1,29 @@
+package com.task.snapshot;
+
+import org.springframework.stereotype.Component;
+
+import com.task.album.Album;
+import com.task.user.User;
+
+/**
+ * Snapshots of the User and Album collections, loaded before the application
+ * reports ready and reloaded every <code>prefetch.refresh-interval</code> by
+ * the {@link SnapshotRefresher}. The Users and Albums by ID are answered from
+ * them instead of calling the API.
+ */
+@Component
+public class EntitySnapshots {
+
+	private final SnapshotStore<User> users = new SnapshotStore<>();
+
+	private final SnapshotStore<Album> albums = new SnapshotStore<>();
+
+	public SnapshotStore<User> getUsers() {
+		return users;
+	}
+
+	public SnapshotStore<Album> getAlbums() {
+		return albums;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.task.snapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of a whole collection of the JSON Placeholder API, indexed by
+ * ID.
+ *
+ * @param <T> the entity type
+ */
+public class Snapshot<T> {
+
+	private final List<T> entities;
+
+	private final Map<Integer, T> byId;
+
+	private final Instant loadedAt;
+
+	/**
+	 * Copies the given entities.
+	 *
+	 * @param entities the entities, in API order
+	 * @param idOf     the ID of an entity
+	 * @param loadedAt the time the entities were read from the API
+	 */
+	public Snapshot(final List<T> entities, final Function<T, Integer> idOf, final Instant loadedAt) {
+
+		this.entities = List.copyOf(entities);
+		this.byId = this.entities.stream()
+				.collect(Collectors.toUnmodifiableMap(idOf, Function.identity(), (first, second) -> first));
+		this.loadedAt = loadedAt;
+	}
+
+	/**
+	 * Gets the entities.
+	 *
+	 * @return the entities, in API order
+	 */
+	public List<T> getAll() {
+		return entities;
+	}
+
+	/**
+	 * Gets the entity with the given ID.
+	 *
+	 * @param id the entity ID
+	 * @return the entity, or empty if the collection had no entity with that ID
+	 */
+	public Optional<T> get(final Integer id) {
+		return Optional.ofNullable(byId.get(id));
+	}
+
+	public Instant getLoadedAt() {
+		return loadedAt;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.task.snapshot;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.client.CollectionLookup;
+import com.task.exception.ApiResponseNotValidException;
+import com.task.user.User;
+import com.task.user.UserService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the User and Album snapshots from the API at startup, as an
+ * application runner, so the application only reports ready once they are
+ * loaded, and reloads them every <code>prefetch.refresh-interval</code>. A
+ * failed load keeps serving the previous snapshot, or the API when there is
+ * none. Both the blocking and the reactive stack read the snapshots, and
+ * <code>prefetch.enabled=false</code> turns the loading off.
+ */
+@Component
+@ConditionalOnProperty(prefix = "prefetch", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SnapshotRefresher implements ApplicationRunner {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AlbumService albumService;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
+	@Override
+	public void run(final ApplicationArguments args) {
+		refresh();
+	}
+
+	/**
+	 * Reloads both snapshots from the API.
+	 */
+	@Scheduled(initialDelayString = "${prefetch.refresh-interval:PT5M}",
+			fixedDelayString = "${prefetch.refresh-interval:PT5M}")
+	public void refresh() {
+		refresh("User", entitySnapshots.getUsers(), userService::fetchUsers, User::getId);
+		refresh("Album", entitySnapshots.getAlbums(), albumService::fetchAlbums, Album::getId);
+	}
+
+	private <T> void refresh(final String name, final SnapshotStore<T> store, final CollectionLookup<T> fetch,
+			final Function<T, Integer> idOf) {
+
+		long version = store.version();
+		try {
+			Snapshot<T> snapshot = new Snapshot<>(fetch.get(), idOf, Instant.now());
+			if (store.publish(snapshot, version)) {
+				log.info("Loaded the {} snapshot: {} entities", name, snapshot.getAll().size());
+			} else {
+				log.info("Discarded the {} snapshot, the collection was written while it loaded", name);
+			}
+		} catch (ApiResponseNotValidException | RuntimeException e) {
+			log.warn("Error refreshing the {} snapshot: {}", name, e.getMessage());
+		}
+	}
+
+}
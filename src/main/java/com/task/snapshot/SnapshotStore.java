@@ -0,0 +1,80 @@
+package com.task.snapshot;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.Value;
+
+/**
+ * Holds the current snapshot of a collection. Readers get it without locking
+ * and a refresh replaces it in one step. A write to the collection drops it, so
+ * the reads go back to the API until the next refresh, and a refresh that was
+ * read from the API before the write is discarded instead of bringing the old
+ * data back.
+ *
+ * @param <T> the entity type
+ */
+public class SnapshotStore<T> {
+
+	private final AtomicReference<State<T>> state = new AtomicReference<>(new State<>(null, 0));
+
+	/**
+	 * Gets the current snapshot.
+	 *
+	 * @return the snapshot, or empty before the first refresh and after a write
+	 */
+	public Optional<Snapshot<T>> current() {
+		return Optional.ofNullable(state.get().getSnapshot());
+	}
+
+	/**
+	 * Gets an entity from the current snapshot.
+	 *
+	 * @param id the entity ID
+	 * @return the entity, or empty if there is no snapshot or it has no entity
+	 *         with that ID
+	 */
+	public Optional<T> find(final Integer id) {
+		return current().flatMap(snapshot -> snapshot.get(id));
+	}
+
+	/**
+	 * Gets the version to pass to {@link #publish(Snapshot, long)}, read before
+	 * the collection is fetched.
+	 *
+	 * @return the number of writes so far
+	 */
+	public long version() {
+		return state.get().getVersion();
+	}
+
+	/**
+	 * Replaces the current snapshot, unless the collection was written since the
+	 * given version was read.
+	 *
+	 * @param snapshot the new snapshot
+	 * @param version  the version read before the collection was fetched
+	 * @return whether the snapshot was published
+	 */
+	public boolean publish(final Snapshot<T> snapshot, final long version) {
+		State<T> published = new State<>(snapshot, version);
+		return state.updateAndGet(current -> current.getVersion() == version ? published : current) == published;
+	}
+
+	/**
+	 * Drops the current snapshot after a write to the collection.
+	 */
+	public void invalidate() {
+		state.updateAndGet(current -> new State<>(null, current.getVersion() + 1));
+	}
+
+	@Value
+	private static class State<T> {
+
+		Snapshot<T> snapshot;
+
+		long version;
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.task.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Stores the saved Users and Albums, one file per entity and format.
+ */
+public interface EntityStore {
+
+	/**
+	 * Gets the location of the file of an entity.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @param format     the file format, e.g. <code>json</code>
+	 * @return the file path
+	 * @throws IllegalArgumentException if the ID is null
+	 */
+	Path resolve(String collection, Integer id, String format);
+
+	/**
+	 * Writes the file of an entity. Readers see either the previous file or the
+	 * complete new one, never a partially written file. Within a group commit
+	 * the file is only in place once committed.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @param format     the file format, e.g. <code>json</code>
+	 * @param content    the file content
+	 * @return the file path
+	 * @throws IOException if the file cannot be written
+	 */
+	Path write(String collection, Integer id, String format, byte[] content) throws IOException;
+
+	/**
+	 * Starts a group commit on the calling thread. Until {@link #commit()},
+	 * the files it writes are staged and only renamed into place by the
+	 * commit, which makes the whole group durable at once.
+	 */
+	void begin();
+
+	/**
+	 * Renames the files staged since {@link #begin()} into place and makes
+	 * them durable, and ends the group commit of the calling thread. It does
+	 * nothing if no group commit was started.
+	 *
+	 * @throws IOException if a staged file cannot be flushed or renamed
+	 */
+	void commit() throws IOException;
+
+	/**
+	 * Finds the file of an entity.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @param format     the file format, e.g. <code>json</code>
+	 * @return the stored file, or empty if the entity has not been stored
+	 * @throws IOException if the file cannot be inspected
+	 */
+	Optional<StoredFile> find(String collection, Integer id, String format) throws IOException;
+
+	/**
+	 * Deletes the file of an entity, if any.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @param format     the file format, e.g. <code>json</code>
+	 * @throws IOException if the file cannot be deleted
+	 */
+	void delete(String collection, Integer id, String format) throws IOException;
+
+}
@@ -0,0 +1,213 @@
+package com.task.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import com.task.config.StorageProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Stores the entity files under a configurable root directory, laid out as
+ * <code>{root}/{collection}/{format}/{shard}/.../{id}.{format}</code>.
+ * <p>
+ * The shard directories come from a hash of the ID, so millions of files are
+ * spread evenly instead of piling up in one directory. Files are written to a
+ * temporary file in the target directory and then atomically renamed into
+ * place. With <code>storage.fsync</code> the file is forced before the rename
+ * and its directory after it, so the rename survives a crash too. In a group
+ * commit the staged files are all flushed first, then renamed, then each of
+ * their directories is flushed once, so a batch of writes shares its
+ * durability point instead of paying for it file by file. The writes are
+ * recorded by the <code>storage.writes</code> timer, tagged by collection and
+ * format.
+ */
+public class FileSystemEntityStore implements EntityStore {
+
+	private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+	private final Path root;
+
+	private final int shardDepth;
+
+	private final boolean fsync;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Files staged by the group commit of each thread, temporary file by
+	 * target.
+	 */
+	private final ThreadLocal<Map<Path, Path>> staged = new ThreadLocal<>();
+
+	public FileSystemEntityStore(final StorageProperties properties, final MeterRegistry meterRegistry) {
+		this.root = properties.getRoot().toAbsolutePath().normalize();
+		this.shardDepth = properties.getShardDepth();
+		this.fsync = properties.isFsync();
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Path resolve(final String collection, final Integer id, final String format) {
+
+		if (id == null) {
+			throw new IllegalArgumentException("The " + collection + " entity has no ID.");
+		}
+
+		Path directory = root.resolve(collection).resolve(format);
+		int hash = mix(id);
+		for (int level = 0; level < shardDepth; level++) {
+			directory = directory.resolve(String.format("%02x", (hash >>> (8 * level)) & 0xff));
+		}
+		return directory.resolve(id + "." + format);
+	}
+
+	@Override
+	public Path write(final String collection, final Integer id, final String format, final byte[] content)
+			throws IOException {
+
+		Timer.Sample sample = Timer.start(meterRegistry);
+		Path target = resolve(collection, id, format);
+		Path directory = Files.createDirectories(target.getParent());
+		Path temp = directory.resolve("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+		Map<Path, Path> group = staged.get();
+
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = ByteBuffer.wrap(content);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				if (fsync && group == null) {
+					channel.force(true);
+				}
+			}
+			if (group != null) {
+				Path replaced = group.put(target, temp);
+				if (replaced != null) {
+					Files.deleteIfExists(replaced);
+				}
+				temp = null;
+			} else {
+				move(temp, target);
+				if (fsync) {
+					syncDirectory(directory);
+				}
+			}
+		} finally {
+			if (temp != null) {
+				Files.deleteIfExists(temp);
+			}
+			sample.stop(Timer.builder("storage.writes").description("Latency of the entity file writes")
+					.tags("collection", collection, "format", format).publishPercentileHistogram()
+					.register(meterRegistry));
+		}
+		return target;
+	}
+
+	@Override
+	public void begin() {
+		if (fsync) {
+			staged.set(new LinkedHashMap<>());
+		}
+	}
+
+	@Override
+	public void commit() throws IOException {
+
+		Map<Path, Path> group = staged.get();
+		if (group == null) {
+			return;
+		}
+		staged.remove();
+
+		try {
+			for (Path temp : group.values()) {
+				try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+					channel.force(true);
+				}
+			}
+			Set<Path> directories = new LinkedHashSet<>();
+			for (Map.Entry<Path, Path> file : group.entrySet()) {
+				move(file.getValue(), file.getKey());
+				directories.add(file.getKey().getParent());
+			}
+			for (Path directory : directories) {
+				syncDirectory(directory);
+			}
+		} finally {
+			for (Path temp : group.values()) {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+
+	@Override
+	public Optional<StoredFile> find(final String collection, final Integer id, final String format)
+			throws IOException {
+
+		Path path = resolve(collection, id, format);
+		try {
+			return Optional.of(new StoredFile(path, Files.getLastModifiedTime(path).toInstant()));
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	public void delete(final String collection, final Integer id, final String format) throws IOException {
+		Files.deleteIfExists(resolve(collection, id, format));
+	}
+
+	private void move(final Path source, final Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Makes a rename in the directory durable. Only POSIX file systems let a
+	 * directory be opened and forced, elsewhere the rename is left to the file
+	 * system.
+	 */
+	private static void syncDirectory(final Path directory) throws IOException {
+		if (!POSIX) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Spreads consecutive IDs over the shards (murmur3 finalizer).
+	 */
+	private static int mix(final int id) {
+		int hash = id;
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.task.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.config.StorageProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local read path of the GET by ID endpoints: serves the stored JSON file of an
+ * entity while it is fresh, and while it is not too stale when the API call
+ * fails. The file is read whole before the response is built, so a file
+ * replaced or removed meanwhile falls back to the API instead of failing the
+ * response, and its bytes are sent without being deserialized. The files are
+ * a few hundred bytes, so one read costs less than mapping them.
+ * <p>
+ * An update or delete does not remove the file, which is the export saved by
+ * <code>/{id}/save</code>: it leaves a tombstone that keeps the files written
+ * before it from being served, until the entity is saved again.
+ */
+@Component
+@Slf4j
+public class LocalEntityReader {
+
+	private static final String FORMAT = "json";
+
+	@Autowired
+	private EntityStore entityStore;
+
+	@Autowired
+	private StorageProperties properties;
+
+	/**
+	 * Time of the last update or delete of every entity, by collection and ID.
+	 * A tombstone older than max-stale is dropped, since the files it hides are
+	 * too old to be served by then anyway.
+	 */
+	private Cache<String, Instant> tombstones;
+
+	@PostConstruct
+	public void init() {
+		tombstones = Caffeine.newBuilder().expireAfterWrite(properties.getMaxStale()).build();
+	}
+
+	/**
+	 * Reads the stored JSON of an entity if it is fresh enough to be served
+	 * instead of calling the API.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @return the response that sends the stored JSON, or empty if it is
+	 *         missing, invalidated or older than max-age
+	 */
+	public Optional<ResponseEntity<Resource>> readFresh(final String collection, final Integer id) {
+		return read(collection, id, properties.getMaxAge());
+	}
+
+	/**
+	 * Reads the stored JSON of an entity if it can still be served when the API
+	 * call failed.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 * @return the response that sends the stored JSON, or empty if it is
+	 *         missing, invalidated or older than max-stale
+	 */
+	public Optional<ResponseEntity<Resource>> readStale(final String collection, final Integer id) {
+		return read(collection, id, properties.getMaxStale());
+	}
+
+	/**
+	 * Stops serving the stored JSON of an entity after it is updated or
+	 * deleted, so the local read path does not serve the previous version. The
+	 * file itself is kept.
+	 *
+	 * @param collection the entity collection, e.g. <code>users</code>
+	 * @param id         the entity ID
+	 */
+	public void invalidate(final String collection, final Integer id) {
+		tombstones.put(key(collection, id), Instant.now());
+	}
+
+	private Optional<ResponseEntity<Resource>> read(final String collection, final Integer id,
+			final Duration maxAge) {
+
+		if (!properties.isLocalReads()) {
+			return Optional.empty();
+		}
+		try {
+			Optional<StoredFile> stored = entityStore.find(collection, id, FORMAT)
+					.filter(file -> file.isYoungerThan(maxAge) && isValid(collection, id, file));
+			if (stored.isEmpty()) {
+				return Optional.empty();
+			}
+			byte[] content = Files.readAllBytes(stored.get().getPath());
+			return Optional.of(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+					.lastModified(stored.get().getLastModified()).body(new ByteArrayResource(content)));
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
+		} catch (IOException e) {
+			log.warn("Error reading the stored {} with ID: {}", collection, id, e);
+			return Optional.empty();
+		}
+	}
+
+	private boolean isValid(final String collection, final Integer id, final StoredFile file) {
+		Instant invalidated = tombstones.getIfPresent(key(collection, id));
+		return invalidated == null || file.getLastModified().isAfter(invalidated);
+	}
+
+	private static String key(final String collection, final Integer id) {
+		return collection + "/" + id;
+	}
+
+}
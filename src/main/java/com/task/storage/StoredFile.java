@@ -0,0 +1,29 @@
+package com.task.storage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * The stored file of an entity.
+ */
+@Value
+public class StoredFile {
+
+	Path path;
+
+	Instant lastModified;
+
+	/**
+	 * Checks whether the file was written less than the given time ago.
+	 *
+	 * @param maxAge the maximum age
+	 * @return true if the file is younger than the maximum age
+	 */
+	public boolean isYoungerThan(final Duration maxAge) {
+		return lastModified.plus(maxAge).isAfter(Instant.now());
+	}
+
+}
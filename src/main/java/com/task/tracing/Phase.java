@@ -0,0 +1,14 @@
+package com.task.tracing;
+
+/**
+ * A traced phase of a request, e.g. a serialization or a file write.
+ *
+ * @param <T> the result type
+ * @param <E> the checked exception the phase throws
+ */
+@FunctionalInterface
+public interface Phase<T, E extends Exception> {
+
+	T run() throws E;
+
+}
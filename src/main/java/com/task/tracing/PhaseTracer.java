@@ -0,0 +1,78 @@
+package com.task.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.task.persistence.FileWrite;
+
+import brave.Span;
+import brave.Tracer;
+import brave.propagation.TraceContext;
+
+/**
+ * Records the phases of a request (API fetch, serialization, file writes) as
+ * child spans of the current trace, so the time of a slow request can be
+ * broken down. The controller and RestTemplate/WebClient spans, and the trace
+ * headers of the API calls, come from Spring Cloud Sleuth.
+ */
+@Component
+public class PhaseTracer {
+
+	private final Tracer tracer;
+
+	@Autowired
+	public PhaseTracer(final Tracer tracer) {
+		this.tracer = tracer;
+	}
+
+	/**
+	 * Runs a phase in a new child span of the current span.
+	 *
+	 * @param <T>   the result type
+	 * @param <E>   the checked exception the phase throws
+	 * @param name  the span name, e.g. <code>album.json.write</code>
+	 * @param phase the phase
+	 * @return the phase result
+	 * @throws E if the phase fails, the error is tagged on the span
+	 */
+	@SuppressWarnings("try")
+	public <T, E extends Exception> T trace(final String name, final Phase<T, E> phase) throws E {
+
+		Span span = tracer.nextSpan().name(name).start();
+		try (Tracer.SpanInScope scope = tracer.withSpanInScope(span)) {
+			return phase.run();
+		} catch (Exception e) {
+			span.error(e);
+			throw e;
+		} finally {
+			span.finish();
+		}
+	}
+
+	/**
+	 * Wraps file writes that run on another thread, so their span is a child of
+	 * the span that is current when they are queued.
+	 *
+	 * @param name  the span name, e.g. <code>album.save</code>
+	 * @param write the file writes
+	 * @return the traced file writes
+	 */
+	@SuppressWarnings("try")
+	public FileWrite inCurrentTrace(final String name, final FileWrite write) {
+
+		Span current = tracer.currentSpan();
+		TraceContext parent = current == null ? null : current.context();
+		return () -> {
+			Span span = (parent == null ? tracer.nextSpan() : tracer.newChild(parent)).name(name).start();
+			try (Tracer.SpanInScope scope = tracer.withSpanInScope(span)) {
+				write.write();
+			} catch (Exception e) {
+				span.error(e);
+				throw e;
+			} finally {
+				span.finish();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.task.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process span exporter for local analysis: logs every finished span with
+ * its trace, parent, duration and tags, one line per span, so the phases of a
+ * single slow request can be found with <code>grep trace=&lt;traceId&gt;</code>.
+ * The <code>com.task.tracing.SpanLogHandler</code> logger can be routed to its
+ * own file with the logging configuration.
+ */
+@Slf4j
+public class SpanLogHandler extends SpanHandler {
+
+	@Override
+	public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+
+		if (cause != Cause.ABANDONED && log.isInfoEnabled()) {
+			log.info("trace={} parent={} span={} name={} kind={} duration={}us error={} tags={}",
+					context.traceIdString(), context.parentIdString(), context.spanIdString(), span.name(),
+					span.kind(), span.finishTimestamp() - span.startTimestamp(), span.error(), span.tags());
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.task.user;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkResult;
+import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.UpstreamUnavailableException;
+import com.task.persistence.ExportJob;
+import com.task.projection.FieldProjector;
+import com.task.projection.Paging;
+import com.task.search.EntitySearch;
+import com.task.search.SearchResult;
+import com.task.storage.LocalEntityReader;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/users")
+@Profile("reactive")
+public class ReactiveUserController {
+
+	private static final String TOTAL_COUNT = "X-Total-Count";
+
+	@Autowired
+	private ReactiveUserService userService;
+
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private EntitySearch entitySearch;
+
+	@Autowired
+	private FieldProjector fieldProjector;
+
+	@GetMapping(path = "", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<User> getUsers(@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size) {
+
+		return Paging.slice(userService.getUsers(), page, size);
+	}
+
+	@GetMapping(path = "", params = "fields", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<byte[]>> getUsersProjected(
+			@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size,
+			@RequestParam(name = "fields") final Set<String> fields) {
+
+		return Paging.slice(userService.getUsers(), page, size).collectList()
+				.flatMap(users -> Mono.fromCallable(() -> fieldProjector.write(users, fields)))
+				.map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json));
+	}
+
+	@GetMapping(path = "", params = "expand=albums", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<UserAlbums> getUsersWithAlbums() {
+
+		return userService.getUsersWithAlbums();
+	}
+
+	@GetMapping(path = "", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<BatchResult<User>> getUsersByIds(@RequestParam(name = "ids") final List<Integer> ids) {
+
+		return userService.getUsersByIds(ids);
+	}
+
+	@PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Flux<BatchResult<User>> getUsersBatch(@RequestBody final List<Integer> ids) {
+
+		return userService.getUsersByIds(ids);
+	}
+
+	@GetMapping(path = "/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<?>> getUserById(@PathVariable(name = "userId") final Integer userId) {
+
+		Mono<ResponseEntity<?>> upstream = userService.getUserById(userId).<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(e -> e instanceof WebClientException || e instanceof UpstreamUnavailableException,
+						e -> findStored(() -> localEntityReader.readStale("users", userId))
+								.switchIfEmpty(Mono.error(e)));
+
+		return findStored(() -> localEntityReader.readFresh("users", userId)).switchIfEmpty(upstream);
+	}
+
+	@GetMapping(path = "/{userId}/albums", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<UserAlbums> getUserWithAlbums(@PathVariable(name = "userId") final Integer userId) {
+		return userService.getUserWithAlbums(userId);
+	}
+
+	@GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<List<User>>> getUserByName(
+			@RequestParam(name = "name", required = false) final String name,
+			@RequestParam(name = "username", required = false) final String username,
+			@RequestParam(name = "email", required = false) final String email,
+			@RequestParam(name = "q", required = false) final String query,
+			@RequestParam(name = "match", required = false) final String match,
+			@RequestParam(name = "offset", required = false) final Integer offset,
+			@RequestParam(name = "limit", required = false) final Integer limit) {
+
+		return Mono.fromCallable(() -> findUsers(name, username, email, query, match, offset, limit))
+				.subscribeOn(Schedulers.boundedElastic()).map(result -> ResponseEntity.ok()
+						.header(TOTAL_COUNT, String.valueOf(result.getTotal())).body(result.getItems()));
+	}
+
+	@GetMapping(path = "/{userId}/save", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<User>> saveUserById(@PathVariable(name = "userId") final Integer userId) {
+
+		return userService.getAndSaveUserById(userId).map(ResponseEntity::ok);
+	}
+
+	@PostMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<ExportJob>> exportUsers() {
+
+		return userService.exportUsers().map(job -> ResponseEntity.accepted()
+				.location(UriComponentsBuilder.fromPath("/exports/{jobId}").build(job.getId())).body(job));
+	}
+
+	@PostMapping(path = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<User>> createUser(@RequestBody final User user) {
+
+		return userService.createUser(user).map(ResponseEntity::ok);
+	}
+
+	@PostMapping(path = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<BulkResult<User>> bulkUsers(@RequestBody final List<BulkOperation<User>> operations) {
+
+		return userService.bulkUsers(operations);
+	}
+
+	@PutMapping("/update")
+	public Mono<ResponseEntity<Void>> updateUser(@RequestBody final User user) {
+		return userService.updateUser(user).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+	}
+
+	@DeleteMapping("/{userId}/delete")
+	public Mono<ResponseEntity<Void>> deleteUser(@PathVariable(name = "userId") final Integer userId) {
+		return userService.deleteUserById(userId).then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+	}
+
+	private Mono<ResponseEntity<?>> findStored(final Supplier<Optional<ResponseEntity<Resource>>> lookup) {
+		return Mono.<ResponseEntity<?>>fromCallable(() -> lookup.get().orElse(null))
+				.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private SearchResult<User> findUsers(final String name, final String username, final String email,
+			final String query, final String match, final Integer offset, final Integer limit)
+			throws ApiResponseNotValidException {
+
+		if (name != null) {
+			return entitySearch.searchUsers("name", name, match, offset, limit);
+		} else if (username != null) {
+			return entitySearch.searchUsers("username", username, match, offset, limit);
+		} else if (email != null) {
+			return entitySearch.searchUsers("email", email, match, offset, limit);
+		} else if (query != null) {
+			return entitySearch.searchUsers(null, query, match, offset, limit);
+		}
+		throw new IllegalArgumentException("One of name, username, email or q is required.");
+	}
+
+}
@@ -0,0 +1,241 @@
+package com.task.user;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.task.album.Album;
+import com.task.album.ReactiveAlbumService;
+import com.task.client.BatchLoader;
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkResult;
+import com.task.client.BulkWriter;
+import com.task.client.UpstreamGuard;
+import com.task.exception.ErrorMetrics;
+import com.task.persistence.BulkExporter;
+import com.task.persistence.ExportJob;
+import com.task.snapshot.EntitySnapshots;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+	private static final String ERROR_MESSAGE = "Error sending User API request. Request body is empty.";
+
+	@Autowired
+	private WebClient upstreamWebClient;
+
+	@Autowired
+	private UpstreamGuard upstreamGuard;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ReactiveAlbumService albumService;
+
+	@Autowired
+	private BulkExporter bulkExporter;
+
+	@Autowired
+	private ErrorMetrics errorMetrics;
+
+	@Autowired
+	private BatchLoader batchLoader;
+
+	@Autowired
+	private BulkWriter bulkWriter;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
+	/**
+	 * Gets the Users from the snapshot, or from the JSON Placeholder API
+	 * without blocking when there is none.
+	 *
+	 * @return the Users
+	 */
+	public Flux<User> getUsers() {
+
+		return Flux.defer(() -> entitySnapshots.getUsers().current()
+				.map(snapshot -> Flux.fromIterable(snapshot.getAll()))
+				.orElseGet(() -> upstreamGuard.read(UserService.BULKHEAD, UserService.LIST_BREAKER,
+						upstreamWebClient.get().uri("/users").retrieve().bodyToFlux(User.class))));
+	}
+
+	/**
+	 * Gets the User with the given ID from the snapshot, or from the JSON
+	 * Placeholder API without blocking when the snapshot does not have it.
+	 *
+	 * @param userId the User ID
+	 * @return the User with the given ID, or an ApiResponseNotValidException if
+	 *         the response body is empty, which the JSON decoder reports as a
+	 *         DecodingException
+	 */
+	public Mono<User> getUserById(final Integer userId) {
+
+		return Mono.defer(() -> entitySnapshots.getUsers().find(userId).map(Mono::just)
+				.orElseGet(() -> fetchUserById(userId)));
+	}
+
+	private Mono<User> fetchUserById(final Integer userId) {
+		return upstreamGuard.read(UserService.BULKHEAD, UserService.BY_ID_BREAKER,
+				upstreamWebClient.get().uri("/users/{userId}", userId).retrieve().bodyToMono(User.class))
+				.onErrorMap(DecodingException.class, e -> errorMetrics.emptyBody("users", ERROR_MESSAGE))
+				.switchIfEmpty(Mono.error(() -> errorMetrics.emptyBody("users", ERROR_MESSAGE)));
+	}
+
+	/**
+	 * Gets the User with the given ID and its Albums. Both reads are issued
+	 * concurrently.
+	 *
+	 * @param userId the User ID
+	 * @return the User with its Albums
+	 */
+	public Mono<UserAlbums> getUserWithAlbums(final Integer userId) {
+
+		return Mono.zip(getUserById(userId),
+				albumService.getAlbums().filter(album -> userId.equals(album.getUserId())).collectList())
+				.map(tuple -> new UserAlbums(tuple.getT1(), tuple.getT2()));
+	}
+
+	/**
+	 * Gets all the Users, each with its Albums. Both collections are read
+	 * concurrently and joined on an index of the Albums by user ID.
+	 *
+	 * @return the Users with their Albums
+	 */
+	public Flux<UserAlbums> getUsersWithAlbums() {
+
+		return Mono.zip(getUsers().collectList(), albumService.getAlbums().collectMultimap(Album::getUserId))
+				.flatMapMany(tuple -> Flux.fromIterable(tuple.getT1()).map(user -> new UserAlbums(user,
+						new ArrayList<>(tuple.getT2().getOrDefault(user.getId(), List.of())))));
+	}
+
+	/**
+	 * Gets the Users with the given IDs without blocking, with at most
+	 * <code>batch.parallelism</code> upstream calls at the same time, or one
+	 * collection fetch for large batches.
+	 *
+	 * @param ids the User IDs
+	 * @return one result per ID, in request order
+	 */
+	public Flux<BatchResult<User>> getUsersByIds(final List<Integer> ids) {
+
+		return batchLoader.loadReactive(ids, this::getUserById, this::getUsers, User::getId);
+	}
+
+	/**
+	 * Gets the Users with the given name without blocking.
+	 *
+	 * @param name the name
+	 * @return the Users with the given name
+	 */
+	public Flux<User> getUsersByName(final String name) {
+
+		return upstreamGuard.read(UserService.BULKHEAD, UserService.SEARCH_BREAKER, upstreamWebClient.get()
+				.uri(uriBuilder -> uriBuilder.path("/users").queryParam("name", name).build()).retrieve()
+				.bodyToFlux(User.class));
+	}
+
+	/**
+	 * Creates a User without blocking.
+	 *
+	 * @param user the User
+	 * @return the created User, or an ApiResponseNotValidException if the
+	 *         response body is empty
+	 */
+	public Mono<User> createUser(final User user) {
+
+		return upstreamGuard.call(UserService.BULKHEAD, UserService.WRITE_BREAKER,
+				upstreamWebClient.post().uri("/users").bodyValue(user).retrieve().bodyToMono(User.class))
+				.map(created -> user)
+				.onErrorMap(DecodingException.class, e -> errorMetrics.emptyBody("users", ERROR_MESSAGE))
+				.switchIfEmpty(Mono.error(() -> errorMetrics.emptyBody("users", ERROR_MESSAGE)))
+				.flatMap(created -> invalidated(userService::invalidateUsers).thenReturn(created));
+	}
+
+	/**
+	 * Updates a User without blocking.
+	 *
+	 * @param user the User
+	 * @return completion signal
+	 */
+	public Mono<Void> updateUser(final User user) {
+
+		return upstreamGuard.call(UserService.BULKHEAD, UserService.WRITE_BREAKER,
+				upstreamWebClient.put().uri("/users/{id}", user.getId()).bodyValue(user).retrieve()
+						.toBodilessEntity())
+				.then(invalidated(() -> userService.invalidateUser(user.getId())));
+	}
+
+	/**
+	 * Deletes a User without blocking.
+	 *
+	 * @param userId the user ID
+	 * @return completion signal
+	 */
+	public Mono<Void> deleteUserById(final Integer userId) {
+
+		return upstreamGuard.call(UserService.BULKHEAD, UserService.WRITE_BREAKER,
+				upstreamWebClient.delete().uri("/users/{userId}", userId).retrieve().toBodilessEntity())
+				.then(invalidated(() -> userService.invalidateUser(userId)));
+	}
+
+	/**
+	 * Runs a bulk write of Users without blocking, with at most
+	 * <code>batch.write-parallelism</code> upstream calls at the same time.
+	 *
+	 * @param operations the creates, updates and deletes
+	 * @return the result of every operation as it completes
+	 */
+	public Flux<BulkResult<User>> bulkUsers(final List<BulkOperation<User>> operations) {
+
+		return bulkWriter.writeReactive(operations, this::createUser, this::updateUser, this::deleteUserById,
+				User::getId);
+	}
+
+	/**
+	 * Gets the User with the given ID and saves it in JSON and XML format. The
+	 * file writes are blocking, so they run on the bounded elastic scheduler.
+	 *
+	 * @param userId the user ID
+	 * @return the saved User
+	 */
+	public Mono<User> getAndSaveUserById(final Integer userId) {
+
+		return getUserById(userId).flatMap(
+				user -> Mono.fromCallable(() -> userService.saveUser(user)).subscribeOn(Schedulers.boundedElastic()));
+	}
+
+	/**
+	 * Fetches all the Users without blocking and starts writing each of them in
+	 * JSON and XML format in parallel.
+	 *
+	 * @return the running export
+	 */
+	public Mono<ExportJob> exportUsers() {
+
+		return getUsers().collectList().map(users -> bulkExporter.start("Users", users, userService::saveUser));
+	}
+
+	/**
+	 * Drops the cached and snapshotted Users shared with the blocking stack
+	 * once a write succeeded. Only in-memory state is touched, so it runs on
+	 * the thread that completed the write.
+	 */
+	private Mono<Void> invalidated(final Runnable invalidation) {
+		return Mono.fromRunnable(invalidation);
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.task.user;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.task.album.Album;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A User with its Albums embedded, serialized as the User fields plus an
+ * <code>albums</code> array.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAlbums {
+
+	@JsonUnwrapped
+	private User user;
+
+	private List<Album> albums;
+
+}
@@ -0,0 +1,104 @@
+package com.task.user;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.config.BatchConfig;
+import com.task.exception.ApiResponseNotValidException;
+
+/**
+ * Joins Users with their Albums. The User and Album reads are issued
+ * concurrently and joined in memory on an index of the Albums by user ID, so
+ * the latency is the one of the slower read instead of their sum. The Albums
+ * are read on a pool of <code>batch.joiners</code> threads of their own while
+ * the request thread reads the Users, so a request takes one pooled thread
+ * and the joins never compete with the MVC async requests for the application
+ * task executor.
+ */
+@Service
+public class UserAlbumsService {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private AlbumService albumService;
+
+	@Autowired
+	@Qualifier(BatchConfig.JOIN_EXECUTOR)
+	private ExecutorService joinExecutor;
+
+	/**
+	 * Gets the User with the given ID and its Albums.
+	 *
+	 * @param userId the User ID
+	 * @return the User with its Albums
+	 * @throws ApiResponseNotValidException if a request body is empty
+	 */
+	public UserAlbums getUserWithAlbums(final Integer userId) throws ApiResponseNotValidException {
+
+		CompletableFuture<Map<Integer, List<Album>>> albumsByUser = supplyAsync(this::getAlbumsByUser);
+		User user = userService.getUserById(userId);
+
+		return new UserAlbums(user, join(albumsByUser).getOrDefault(userId, List.of()));
+	}
+
+	/**
+	 * Gets all the Users, each with its Albums.
+	 *
+	 * @return the Users with their Albums
+	 * @throws ApiResponseNotValidException if a request body is empty
+	 */
+	public List<UserAlbums> getUsersWithAlbums() throws ApiResponseNotValidException {
+
+		CompletableFuture<Map<Integer, List<Album>>> albumsByUser = supplyAsync(this::getAlbumsByUser);
+		List<User> users = userService.getUsers();
+
+		Map<Integer, List<Album>> index = join(albumsByUser);
+		return users.stream().map(user -> new UserAlbums(user, index.getOrDefault(user.getId(), List.of())))
+				.collect(Collectors.toList());
+	}
+
+	private Map<Integer, List<Album>> getAlbumsByUser() throws ApiResponseNotValidException {
+		return albumService.getAlbums().stream().filter(album -> album.getUserId() != null)
+				.collect(Collectors.groupingBy(Album::getUserId));
+	}
+
+	private <T> CompletableFuture<T> supplyAsync(final Callable<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return call.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, joinExecutor);
+	}
+
+	private <T> T join(final CompletableFuture<T> future) throws ApiResponseNotValidException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof ApiResponseNotValidException) {
+				throw (ApiResponseNotValidException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
@@ -1,8 +1,16 @@
 package com.task.user;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,41 +22,155 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.task.client.BatchLoader;
+import com.task.client.BatchResult;
+import com.task.client.BulkOperation;
+import com.task.client.BulkWriter;
+import com.task.client.NdjsonStreamer;
+import com.task.config.CacheConfig;
 import com.task.exception.ApiResponseNotValidException;
 import com.task.exception.SaveFileException;
+import com.task.persistence.ExportJob;
+import com.task.persistence.SaveJob;
+import com.task.projection.FieldProjector;
+import com.task.projection.Paging;
+import com.task.search.EntitySearch;
+import com.task.search.SearchResult;
+import com.task.storage.LocalEntityReader;
 
 @RestController
 @RequestMapping("/users")
+@Profile("!reactive")
 public class UserController {
-	
-	
+
+	private static final String TOTAL_COUNT = "X-Total-Count";
+
 	@Autowired
 	private UserService userService;
 
+	@Autowired
+	private UserAlbumsService userAlbumsService;
+
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private BatchLoader batchLoader;
+
+	@Autowired
+	private BulkWriter bulkWriter;
+
+	@Autowired
+	private NdjsonStreamer ndjsonStreamer;
+
+	@Autowired
+	private EntitySearch entitySearch;
+
+	@Autowired
+	private FieldProjector fieldProjector;
+
 	@GetMapping(path = "", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<List<User>> getUsers() throws ApiResponseNotValidException {
+	public ResponseEntity<?> getUsers(@RequestParam(name = "page", required = false) final Integer page,
+			@RequestParam(name = "size", required = false) final Integer size,
+			@RequestParam(name = "fields", required = false) final Set<String> fields)
+			throws ApiResponseNotValidException, JsonProcessingException {
+
+		List<User> users = userService.getUsers();
+		List<User> pageOfUsers = Paging.slice(users, page, size);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(TOTAL_COUNT, String.valueOf(users.size()));
+
+		if (fields == null || fields.isEmpty()) {
+			return response.body(pageOfUsers);
+		}
+		return response.contentType(MediaType.APPLICATION_JSON).body(fieldProjector.write(pageOfUsers, fields));
+	}
+
+	@GetMapping(path = "", params = "expand=albums", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<UserAlbums>> getUsersWithAlbums() throws ApiResponseNotValidException {
+
+		return ResponseEntity.ok(userAlbumsService.getUsersWithAlbums());
+	}
+
+	@GetMapping(path = "", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<BatchResult<User>>> getUsersByIds(@RequestParam(name = "ids") final List<Integer> ids) {
+
+		return ResponseEntity.ok(batchLoader.load(CacheConfig.USERS, ids, userService::getUserById,
+				userService::getUsers, User::getId));
+	}
+
+	@PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<BatchResult<User>>> getUsersBatch(@RequestBody final List<Integer> ids) {
 
-		return ResponseEntity.ok(userService.getUsers());
+		return getUsersByIds(ids);
+	}
+
+	@GetMapping(path = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamUsers(final HttpServletRequest request) {
+
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		return ResponseEntity.ok(userService::streamUsers);
 	}
 
 	@GetMapping(path = "/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<User> getUserById(@PathVariable(name = "userId") final Integer userId)
+	public ResponseEntity<?> getUserById(@PathVariable(name = "userId") final Integer userId)
 			throws ApiResponseNotValidException {
-		return ResponseEntity.ok(userService.getUserById(userId));
+
+		Optional<ResponseEntity<Resource>> stored = localEntityReader.readFresh("users", userId);
+		if (stored.isPresent()) {
+			return stored.get();
+		}
+
+		try {
+			return ResponseEntity.ok(userService.getUserById(userId));
+		} catch (RestClientException e) {
+			return localEntityReader.readStale("users", userId).orElseThrow(() -> e);
+		}
 	}
-	
-	@GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<List<User>> getUserByName(@RequestParam(name = "name") final String name)
+
+	@GetMapping(path = "/{userId}/albums", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<UserAlbums> getUserWithAlbums(@PathVariable(name = "userId") final Integer userId)
 			throws ApiResponseNotValidException {
-		return ResponseEntity.ok(userService.getUsersByName(name));
+
+		return ResponseEntity.ok(userAlbumsService.getUserWithAlbums(userId));
+	}
+
+	@GetMapping(path = "/find", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<User>> getUserByName(@RequestParam(name = "name", required = false) final String name,
+			@RequestParam(name = "username", required = false) final String username,
+			@RequestParam(name = "email", required = false) final String email,
+			@RequestParam(name = "q", required = false) final String query,
+			@RequestParam(name = "match", required = false) final String match,
+			@RequestParam(name = "offset", required = false) final Integer offset,
+			@RequestParam(name = "limit", required = false) final Integer limit) throws ApiResponseNotValidException {
+
+		SearchResult<User> result = findUsers(name, username, email, query, match, offset, limit);
+		return ResponseEntity.ok().header(TOTAL_COUNT, String.valueOf(result.getTotal())).body(result.getItems());
 	}
 
 	@GetMapping(path = "/{userId}/save", produces = MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<User> saveUserById(@PathVariable(name = "userId") final Integer userId)
+	public ResponseEntity<User> saveUserById(@PathVariable(name = "userId") final Integer userId,
+			@RequestParam(name = "wait", defaultValue = "${persistence.wait-for-durability:false}") final boolean wait)
 			throws ApiResponseNotValidException, SaveFileException {
 
-		return ResponseEntity.ok(userService.getAndSaveUserById(userId));
+		SaveJob<User> job = userService.getAndSaveUserById(userId, wait);
+		URI status = UriComponentsBuilder.fromPath("/saves/{jobId}").build(job.getId());
+
+		return ResponseEntity.status(wait ? HttpStatus.OK : HttpStatus.ACCEPTED).location(status).body(job.getValue());
+	}
+
+	@PostMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<ExportJob> exportUsers() throws ApiResponseNotValidException {
+
+		ExportJob job = userService.exportUsers();
+		URI status = UriComponentsBuilder.fromPath("/exports/{jobId}").build(job.getId());
+
+		return ResponseEntity.accepted().location(status).body(job);
 	}
 
 	@PostMapping(path = "/create", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -57,6 +179,16 @@ public class UserController {
 		return ResponseEntity.ok(userService.createUser(user));
 	}
 
+	@PostMapping(path = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> bulkUsers(@RequestBody final List<BulkOperation<User>> operations,
+			final HttpServletRequest request) {
+
+		bulkWriter.checkSize(operations);
+		ShallowEtagHeaderFilter.disableContentCaching(request);
+		return ResponseEntity.ok(out -> bulkWriter.write(operations, userService::createUser, userService::updateUser,
+				userService::deleteUserById, User::getId, result -> ndjsonStreamer.writeLine(result, out)));
+	}
+
 	@PutMapping("/update")
 	public ResponseEntity<Void> updateUser(@RequestBody final User user){
 		userService.updateUser(user);
@@ -69,4 +201,19 @@ public class UserController {
 		return ResponseEntity.ok().build();
 	}
 
+	private SearchResult<User> findUsers(final String name, final String username, final String email,
+			final String query, final String match, final Integer offset, final Integer limit)
+			throws ApiResponseNotValidException {
+
+		if (name != null) {
+			return entitySearch.searchUsers("name", name, match, offset, limit);
+		} else if (username != null) {
+			return entitySearch.searchUsers("username", username, match, offset, limit);
+		} else if (email != null) {
+			return entitySearch.searchUsers("email", email, match, offset, limit);
+		} else if (query != null) {
+			return entitySearch.searchUsers(null, query, match, offset, limit);
+		}
+		throw new IllegalArgumentException("One of name, username, email or q is required.");
+	}
 }
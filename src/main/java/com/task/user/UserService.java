@@ -1,27 +1,44 @@
 package com.task.user;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.client.NdjsonStreamer;
+import com.task.client.SingleFlight;
+import com.task.client.UpstreamGuard;
+import com.task.config.CacheConfig;
+import com.task.config.HttpClientProperties;
 import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.ErrorMetrics;
 import com.task.exception.SaveFileException;
+import com.task.export.XmlExporter;
+import com.task.persistence.BulkExporter;
+import com.task.persistence.ExportJob;
+import com.task.persistence.PersistencePipeline;
+import com.task.persistence.SaveJob;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.Snapshot;
+import com.task.storage.EntityStore;
+import com.task.storage.LocalEntityReader;
+import com.task.tracing.PhaseTracer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,33 +48,115 @@ public class UserService {
 
 	private static final String ERROR_MESSAGE = "Error sending User API request. Request body is empty.";
 
-	private static final String API_URL = "https://jsonplaceholder.typicode.com";
+	static final String BULKHEAD = "users";
+
+	static final String LIST_BREAKER = "user-list";
+
+	static final String BY_ID_BREAKER = "user-by-id";
+
+	static final String SEARCH_BREAKER = "user-search";
+
+	static final String WRITE_BREAKER = "user-write";
 
 	@Autowired
 	private RestTemplate restTemplate;
 
+	@Autowired
+	private HttpClientProperties httpClientProperties;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private SingleFlight singleFlight;
+
+	@Autowired
+	private UpstreamGuard upstreamGuard;
+
+	@Autowired
+	private NdjsonStreamer ndjsonStreamer;
+
+	@Autowired
+	private XmlExporter xmlExporter;
+
+	@Autowired
+	private EntityStore entityStore;
+
+	@Autowired
+	private LocalEntityReader localEntityReader;
+
+	@Autowired
+	private PersistencePipeline persistencePipeline;
+
+	@Autowired
+	private BulkExporter bulkExporter;
+
+	@Autowired
+	private ErrorMetrics errorMetrics;
+
+	@Autowired
+	private PhaseTracer phaseTracer;
+
+	@Autowired
+	private EntitySnapshots entitySnapshots;
+
 	/**
-	 * Gets a list of Users from the JSON Placeholder API.
+	 * Gets a list of Users from the snapshot, or from the JSON Placeholder API
+	 * when there is none.
 	 *
 	 * @return the User list
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@Cacheable(cacheNames = CacheConfig.USER_LIST)
 	public List<User> getUsers() throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users").build().toUri();
+		Optional<Snapshot<User>> snapshot = entitySnapshots.getUsers().current();
+		if (snapshot.isPresent()) {
+			return snapshot.get().getAll();
+		}
+		return fetchUsers();
+	}
+
+	/**
+	 * Gets a list of Users from the JSON Placeholder API, bypassing the cache
+	 * and the snapshot.
+	 *
+	 * @return the User list
+	 * @throws ApiResponseNotValidException if the request body is empty
+	 */
+	public List<User> fetchUsers() throws ApiResponseNotValidException {
+
+		URI uri = apiUrl().path("/users").build().toUri();
 
-		ResponseEntity<User[]> response = restTemplate.getForEntity(uri, User[].class);
+		ResponseEntity<User[]> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, LIST_BREAKER,
+						() -> restTemplate.getForEntity(uri, User[].class)));
 
 		if (response.hasBody()) {
 			return Arrays.asList(response.getBody());
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("users", ERROR_MESSAGE);
 		}
 	}
 
+	/**
+	 * Streams the Users from the JSON Placeholder API as newline delimited
+	 * JSON, writing each User as soon as it is decoded. The circuit breaker and
+	 * bulkhead only guard the API call up to the response headers, so a slow
+	 * or disconnected client neither holds a bulkhead permit nor counts as an
+	 * API failure.
+	 *
+	 * @param out the stream the Users are written to
+	 * @throws IOException if the response cannot be read or written
+	 */
+	public void streamUsers(final OutputStream out) throws IOException {
+
+		URI uri = apiUrl().path("/users").build().toUri();
+
+		ClientHttpResponse response = upstreamGuard.call(BULKHEAD, LIST_BREAKER, () -> ndjsonStreamer.open(uri));
+		ndjsonStreamer.write(response, User.class, out);
+	}
+
 	/**
 	 * Gets the User with the given ID.
 	 *
@@ -65,16 +164,24 @@ public class UserService {
 	 * @return the User with the given ID
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@Cacheable(cacheNames = CacheConfig.USERS)
 	public User getUserById(final Integer userId) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users/{userId}").build(userId);
+		Optional<User> snapshotted = entitySnapshots.getUsers().find(userId);
+		if (snapshotted.isPresent()) {
+			return snapshotted.get();
+		}
+
+		URI uri = apiUrl().path("/users/{userId}").build(userId);
 
-		ResponseEntity<User> response = restTemplate.getForEntity(uri, User.class);
+		ResponseEntity<User> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, BY_ID_BREAKER,
+						() -> restTemplate.getForEntity(uri, User.class)));
 
 		if (response.hasBody()) {
 			return response.getBody();
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("users", ERROR_MESSAGE);
 		}
 
 	}
@@ -88,14 +195,16 @@ public class UserService {
 	 */
 	public List<User> getUsersByName(final String name) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users").queryParam("name", name).build().toUri();
+		URI uri = apiUrl().path("/users").queryParam("name", name).build().toUri();
 
-		ResponseEntity<User[]> response = restTemplate.getForEntity(uri, User[].class);
+		ResponseEntity<User[]> response = singleFlight.execute(uri,
+				() -> upstreamGuard.read(BULKHEAD, SEARCH_BREAKER,
+						() -> restTemplate.getForEntity(uri, User[].class)));
 
 		if (response.hasBody()) {
 			return Arrays.asList(response.getBody());
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("users", ERROR_MESSAGE);
 		}
 
 	}
@@ -107,16 +216,20 @@ public class UserService {
 	 * @return the created User
 	 * @throws ApiResponseNotValidException if the request body is empty
 	 */
+	@CacheEvict(cacheNames = CacheConfig.USER_LIST, allEntries = true)
 	public User createUser(final User user) throws ApiResponseNotValidException {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users").build().toUri();
+		URI uri = apiUrl().path("/users").build().toUri();
+
+		ResponseEntity<User> response = upstreamGuard.call(BULKHEAD, WRITE_BREAKER,
+				() -> restTemplate.postForEntity(uri, user, User.class));
 
-		ResponseEntity<User> response = restTemplate.postForEntity(uri, user, User.class);
+		entitySnapshots.getUsers().invalidate();
 
 		if (response.hasBody()) {
 			return user;
 		} else {
-			throw new ApiResponseNotValidException(ERROR_MESSAGE);
+			throw errorMetrics.emptyBody("users", ERROR_MESSAGE);
 		}
 
 	}
@@ -126,11 +239,16 @@ public class UserService {
 	 *
 	 * @param user the User
 	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.id"),
+			@CacheEvict(cacheNames = CacheConfig.USER_LIST, allEntries = true) })
 	public void updateUser(final User user) {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users/{id}").build(user.getId());
+		URI uri = apiUrl().path("/users/{id}").build(user.getId());
+
+		upstreamGuard.run(BULKHEAD, WRITE_BREAKER, () -> restTemplate.put(uri, user));
 
-		restTemplate.put(uri, user);
+		localEntityReader.invalidate("users", user.getId());
+		entitySnapshots.getUsers().invalidate();
 
 	}
 
@@ -139,25 +257,88 @@ public class UserService {
 	 *
 	 * @param userId the user ID
 	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+			@CacheEvict(cacheNames = CacheConfig.USER_LIST, allEntries = true) })
 	public void deleteUserById(final Integer userId) {
 
-		URI uri = UriComponentsBuilder.fromHttpUrl(API_URL).path("/users/{userId}").build(userId);
+		URI uri = apiUrl().path("/users/{userId}").build(userId);
+
+		upstreamGuard.run(BULKHEAD, WRITE_BREAKER, () -> restTemplate.delete(uri));
+
+		localEntityReader.invalidate("users", userId);
+		entitySnapshots.getUsers().invalidate();
 
-		restTemplate.delete(uri);
+	}
 
+	/**
+	 * Drops the cached User list and the User snapshot after a User was
+	 * created through the reactive stack.
+	 */
+	@CacheEvict(cacheNames = CacheConfig.USER_LIST, allEntries = true)
+	public void invalidateUsers() {
+		entitySnapshots.getUsers().invalidate();
 	}
 
 	/**
-	 * Gets the User with the given ID and saves it in JSON and XML format.
+	 * Drops the cached User, the cached User list, the stored User and
+	 * the User snapshot after a User was updated or deleted through the
+	 * reactive stack.
 	 *
-	 * @param userID the user ID
-	 * @return the saved User
+	 * @param userId the user ID
+	 */
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+			@CacheEvict(cacheNames = CacheConfig.USER_LIST, allEntries = true) })
+	public void invalidateUser(final Integer userId) {
+		localEntityReader.invalidate("users", userId);
+		entitySnapshots.getUsers().invalidate();
+	}
+
+	/**
+	 * Gets the User with the given ID and queues it to be saved in JSON and XML
+	 * format by the persistence pipeline.
+	 *
+	 * @param userId             the user ID
+	 * @param waitForDurability whether to wait until the files are written
+	 * @return the save job
 	 * @throws ApiResponseNotValidException if the request body is empty
-	 * @throws SaveFileException            if the files are not saved correctly
+	 * @throws SaveFileException            if the save is rejected, or the files
+	 *                                      are not written correctly while waiting
 	 */
-	public User getAndSaveUserById(final Integer userId) throws ApiResponseNotValidException, SaveFileException {
+	public SaveJob<User> getAndSaveUserById(final Integer userId, final boolean waitForDurability)
+			throws ApiResponseNotValidException, SaveFileException {
 
-		User user = getUserById(userId);
+		User user = phaseTracer.trace("user.fetch", () -> getUserById(userId));
+
+		SaveJob<User> job = persistencePipeline.submit("User with ID: " + user.getId(), user,
+				phaseTracer.inCurrentTrace("user.save", () -> saveUser(user)));
+
+		if (waitForDurability) {
+			persistencePipeline.await(job);
+		}
+
+		return job;
+	}
+
+	/**
+	 * Fetches all the Users once and starts writing each of them in JSON and
+	 * XML format in parallel.
+	 *
+	 * @return the running export
+	 * @throws ApiResponseNotValidException if the request body is empty
+	 */
+	public ExportJob exportUsers() throws ApiResponseNotValidException {
+
+		return bulkExporter.start("Users", getUsers(), this::saveUser);
+	}
+
+	/**
+	 * Saves the User in JSON and XML format.
+	 *
+	 * @param user the User
+	 * @return the saved User
+	 * @throws SaveFileException if the files are not saved correctly
+	 */
+	public User saveUser(final User user) throws SaveFileException {
 
 		saveUserToJsonFile(user);
 
@@ -176,11 +357,12 @@ public class UserService {
 
 		try {
 
-			Path path = Paths.get("src/main/resources/users/json/" + user.getId() + ".json");
-			Files.writeString(path, objectMapper.writeValueAsString(user));
+			byte[] json = phaseTracer.trace("user.json.serialize",
+					() -> objectMapper.writeValueAsString(user).getBytes(StandardCharsets.UTF_8));
+			phaseTracer.trace("user.json.write", () -> entityStore.write("users", user.getId(), "json", json));
 			log.info("Saved User with ID: {} to JSON file", user.getId());
 		} catch (IOException e) {
-			throw new SaveFileException("Error saving User JSON file", e);
+			throw errorMetrics.saveFailed("users", "json", "Error saving User JSON file", e);
 
 		}
 	}
@@ -194,13 +376,15 @@ public class UserService {
 	private void saveUserToXmlFile(final User user) throws SaveFileException {
 		try {
 
-			JAXBContext context = JAXBContext.newInstance(User.class);
-			Marshaller mar = context.createMarshaller();
-			mar.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			mar.marshal(user, new File("src/main/resources/users/xml/" + user.getId() + ".xml"));
+			byte[] xml = phaseTracer.trace("user.xml.marshal", () -> xmlExporter.export(user));
+			phaseTracer.trace("user.xml.write", () -> entityStore.write("users", user.getId(), "xml", xml));
 			log.info("Saved User with ID: {} to XML file", user.getId());
-		} catch (JAXBException e) {
-			throw new SaveFileException("Error saving User XML file", e);
+		} catch (JAXBException | IOException e) {
+			throw errorMetrics.saveFailed("users", "xml", "Error saving User XML file", e);
 		}
 	}
+
+	private UriComponentsBuilder apiUrl() {
+		return UriComponentsBuilder.fromHttpUrl(httpClientProperties.getBaseUrl());
+	}
 }
@@ -0,0 +1,37 @@
+package com.task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks and writes their results as JSON to
+ * <code>target/jmh/{benchmark}.json</code> (or the
+ * <code>benchmark.results</code> directory), so two runs can be compared.
+ */
+public final class Benchmarks {
+
+	private Benchmarks() {
+	}
+
+	/**
+	 * Runs every benchmark method of the class.
+	 *
+	 * @param benchmark the benchmark class
+	 * @throws RunnerException if the benchmark fails
+	 * @throws IOException     if the results directory cannot be created
+	 */
+	public static void run(final Class<?> benchmark) throws RunnerException, IOException {
+
+		Path results = Files.createDirectories(Paths.get(System.getProperty("benchmark.results", "target/jmh")));
+		new Runner(new OptionsBuilder().include(benchmark.getName() + "\\.").resultFormat(ResultFormatType.JSON)
+				.result(results.resolve(benchmark.getSimpleName() + ".json").toString()).build()).run();
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Load test of the reactive stack, with the blocking stack as the baseline,
+ * against a local stub of the JSON Placeholder API that answers every request
+ * after a fixed latency. The application is started once per stack with the
+ * entity caches off, so every request reaches the stub, and without slow-call
+ * breaking, so the queueing shows in the latencies. It is skipped by default,
+ * run it with <code>mvn test -Dtest=ReactiveApiBenchmark -Dbenchmark=true</code>
+ * and tune it with <code>benchmark.clients</code> (1000) and
+ * <code>benchmark.requests-per-client</code> (20).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveApiBenchmark {
+
+	private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+
+	private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests-per-client", 20);
+
+	private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(50);
+
+	private static LoopResources upstreamStubLoops;
+
+	private static DisposableServer upstreamStub;
+
+	@TempDir
+	Path storage;
+
+	@BeforeAll
+	static void startUpstreamStub() {
+		// own event loops, since closing an application disposes the global ones
+		upstreamStubLoops = LoopResources.create("upstream-stub");
+		upstreamStub = HttpServer.create().runOn(upstreamStubLoops).port(0)
+				.route(routes -> routes.get("/albums/{albumId}",
+						(request, response) -> response
+								.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+								.sendString(Mono.delay(UPSTREAM_LATENCY).map(tick -> "{\"userId\":1,\"id\":"
+										+ request.param("albumId") + ",\"title\":\"benchmark\"}"))))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopUpstreamStub() {
+		upstreamStub.disposeNow();
+		upstreamStubLoops.disposeLater().block();
+	}
+
+	@Test
+	void getAlbumById_ConcurrentClients() {
+		run("Blocking", "default");
+		run("Reactive", "reactive");
+	}
+
+	private void run(final String name, final String profile) {
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProgrammingTaskApplication.class)
+				.profiles(profile)
+				.run("--server.port=0", "--upstream.http.base-url=http://localhost:" + upstreamStub.port(),
+						"--upstream.http.max-total=500", "--upstream.http.max-per-route=500",
+						"--upstream.http.max-pending-acquires=-1", "--upstream.http.connection-request-timeout=10s",
+						"--resilience4j.bulkhead.instances.albums.max-concurrent-calls=" + CLIENTS,
+						"--resilience4j.circuitbreaker.configs.default.slow-call-duration-threshold=1m",
+						"--spring.cache.type=none", "--prefetch.enabled=false",
+						"--storage.root=" + storage.resolve(name), "--storage.local-reads=false")) {
+
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			getAlbumById(name, port);
+		}
+	}
+
+	private void getAlbumById(final String name, final int port) {
+		ConnectionProvider clientConnections = ConnectionProvider.builder("benchmark").maxConnections(CLIENTS)
+				.pendingAcquireMaxCount(-1).build();
+		WebClient client = WebClient.builder().baseUrl("http://localhost:" + port)
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(clientConnections))).build();
+
+		int total = CLIENTS * REQUESTS_PER_CLIENT;
+		long[] latencies = new long[total];
+		AtomicInteger completed = new AtomicInteger();
+
+		long start = System.nanoTime();
+		Flux.range(0, CLIENTS).flatMap(clientId -> Flux.range(0, REQUESTS_PER_CLIENT).concatMap(request -> {
+			long requestStart = System.nanoTime();
+			return client.get().uri("/albums/{albumId}", (clientId + request) % 100 + 1).retrieve()
+					.bodyToMono(String.class)
+					.doOnNext(body -> latencies[completed.getAndIncrement()] = System.nanoTime() - requestStart);
+		}), CLIENTS).blockLast(Duration.ofMinutes(5));
+		long elapsed = System.nanoTime() - start;
+
+		clientConnections.disposeLater().block();
+
+		assertEquals(total, completed.get());
+		Arrays.sort(latencies);
+		log.info("{} GET /albums/{albumId}: {} clients, {} requests, {} req/s, p50 {} ms, p99 {} ms", name,
+				CLIENTS, total, total * 1_000_000_000L / elapsed, latencies[total / 2] / 1_000_000,
+				latencies[(int) Math.ceil(total * 0.99) - 1] / 1_000_000);
+	}
+
+}
@@ -2,11 +2,19 @@ package com.task.album;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
 
 import org.assertj.core.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -14,14 +22,40 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.client.Hedger;
+import com.task.client.NdjsonStreamer;
+import com.task.client.SingleFlight;
+import com.task.client.UpstreamGuard;
+import com.task.config.HedgingProperties;
+import com.task.config.HttpClientProperties;
+import com.task.config.PersistenceProperties;
 import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.ErrorMetrics;
 import com.task.exception.SaveFileException;
+import com.task.export.XmlExporter;
+import com.task.persistence.PersistencePipeline;
+import com.task.persistence.SaveJob;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.Snapshot;
+import com.task.snapshot.SnapshotStore;
+import com.task.storage.EntityStore;
+import com.task.storage.LocalEntityReader;
+import com.task.tracing.PhaseTracer;
+
+import brave.Tracing;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class AlbumServiceTest {
@@ -29,12 +63,68 @@ public class AlbumServiceTest {
 	@InjectMocks
 	private AlbumService albumService;
 
+	@Mock
+	private LocalEntityReader localEntityReader;
+
 	@Mock
 	private RestTemplate restTemplate;
 
+	@Spy
+	private HttpClientProperties httpClientProperties = new HttpClientProperties();
+
 	@Mock
 	private ObjectMapper mockMapper;
 
+	@Spy
+	private SingleFlight singleFlight = new SingleFlight();
+
+	private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+
+	private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+
+	private final Hedger hedger = new Hedger(new HedgingProperties(), new SimpleMeterRegistry());
+
+	@Spy
+	private UpstreamGuard upstreamGuard = new UpstreamGuard(circuitBreakers, bulkheads,
+			RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), hedger, new SimpleMeterRegistry());
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Spy
+	private ErrorMetrics errorMetrics = new ErrorMetrics(meterRegistry);
+
+	@Spy
+	private PhaseTracer phaseTracer = new PhaseTracer(Tracing.newBuilder().build().tracer());
+
+	@Spy
+	private XmlExporter xmlExporter = new XmlExporter(true);
+
+	@Mock
+	private EntityStore entityStore;
+
+	private final PersistencePipeline pipeline = new PersistencePipeline(new PersistenceProperties(),
+			Mockito.mock(EntityStore.class), new SimpleMeterRegistry());
+
+	@Spy
+	private PersistencePipeline persistencePipeline = pipeline;
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
+	@Mock
+	private NdjsonStreamer ndjsonStreamer;
+
+	private void loadSnapshot(final Album... albums) {
+		SnapshotStore<Album> store = entitySnapshots.getAlbums();
+		store.publish(new Snapshot<>(List.of(albums), Album::getId, Instant.now()), store.version());
+	}
+
+	@AfterEach
+	public void shutdown() throws InterruptedException {
+		hedger.shutdown();
+		pipeline.shutdown();
+	}
+
 	@Test
 	public void testGetAlbums_IsSuccessfull() throws ApiResponseNotValidException {
 		Album[] albumArray = { new Album(1, 1, "mock title 1"), new Album(2, 2, "mock title 2") };
@@ -56,6 +146,7 @@ public class AlbumServiceTest {
 		assertThrows(ApiResponseNotValidException.class, () -> {
 			albumService.getAlbums();
 		});
+		assertEquals(1, meterRegistry.get("api.response.empty").tag("collection", "albums").counter().count());
 
 	}
 
@@ -125,11 +216,32 @@ public class AlbumServiceTest {
 
 	}
 
+	@Test
+	public void testGetAlbumById_InSnapshot_ApiIsNotCalled() throws ApiResponseNotValidException {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		loadSnapshot(expectedAlbum);
+
+		assertEquals(expectedAlbum, albumService.getAlbumById(1));
+		assertEquals(List.of(expectedAlbum), albumService.getAlbums());
+		verifyNoInteractions(restTemplate);
+	}
+
+	@Test
+	public void testUpdateAlbum_SnapshotIsInvalidated() {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		loadSnapshot(expectedAlbum);
+
+		albumService.updateAlbum(expectedAlbum);
+
+		assertTrue(entitySnapshots.getAlbums().current().isEmpty());
+	}
+
 	@Test
 	public void testUpdateAlbum_IsSuccessfull() {
 		Album expectedAlbum = new Album(1, 1, "mock title");
 		albumService.updateAlbum(expectedAlbum);
 		verify(restTemplate).put(URI.create("https://jsonplaceholder.typicode.com/albums/1"), expectedAlbum);
+		verify(localEntityReader).invalidate("albums", 1);
 
 	}
 
@@ -137,20 +249,55 @@ public class AlbumServiceTest {
 	public void testDeleteAlbumById_IsSuccessfull() {
 		albumService.deleteAlbumById(1);
 		verify(restTemplate).delete(URI.create("https://jsonplaceholder.typicode.com/albums/1"));
+		verify(localEntityReader).invalidate("albums", 1);
 
 	}
 
 	@Test
 	public void testGetAndSaveAlbumById_IsSuccessfull()
-			throws ApiResponseNotValidException, SaveFileException, JsonProcessingException {
+			throws ApiResponseNotValidException, SaveFileException, IOException {
 		Album expectedAlbum = new Album(1, 11, "mock title");
 		Mockito.when(
 				restTemplate.getForEntity(URI.create("https://jsonplaceholder.typicode.com/albums/" + 11), Album.class))
 				.thenReturn(ResponseEntity.ok(expectedAlbum));
 		Mockito.when(mockMapper.writeValueAsString(expectedAlbum))
 				.thenReturn("{\"userId\":2,\"id\":11,\"title\":\"quam nostrum impedit mollitia quod et dolor\"}");
-		assertEquals(expectedAlbum, albumService.getAndSaveAlbumById(11));
+		SaveJob<Album> job = albumService.getAndSaveAlbumById(11, true);
+		assertEquals(expectedAlbum, job.getValue());
+		assertEquals(SaveJob.Status.WRITTEN, job.getStatus());
+		verify(entityStore).write("albums", 11, "json",
+				"{\"userId\":2,\"id\":11,\"title\":\"quam nostrum impedit mollitia quod et dolor\"}"
+						.getBytes(StandardCharsets.UTF_8));
+
+	}
 
+	@Test
+	public void testSaveAlbum_WriteFails_FailureIsCounted() throws Exception {
+		Album album = new Album(1, 1, "mock title");
+		Mockito.when(mockMapper.writeValueAsString(album)).thenReturn("{}");
+		Mockito.when(entityStore.write("albums", 1, "json", "{}".getBytes(StandardCharsets.UTF_8)))
+				.thenThrow(new IOException("No space left on device"));
+
+		assertThrows(SaveFileException.class, () -> albumService.saveAlbum(album));
+		assertEquals(1, meterRegistry.get("save.file.failures").tags("collection", "albums", "format", "json")
+				.counter().count());
+	}
+
+	@Test
+	public void testStreamAlbums_ClientDisconnects_BreakerAndBulkheadAreNotHeld() throws Exception {
+		ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Mockito.when(ndjsonStreamer.open(URI.create("https://jsonplaceholder.typicode.com/albums")))
+				.thenReturn(response);
+		Mockito.doAnswer(invocation -> {
+			assertEquals(bulkheads.bulkhead(AlbumService.BULKHEAD).getBulkheadConfig().getMaxConcurrentCalls(),
+					bulkheads.bulkhead(AlbumService.BULKHEAD).getMetrics().getAvailableConcurrentCalls());
+			throw new IOException("Broken pipe");
+		}).when(ndjsonStreamer).write(response, Album.class, out);
+
+		assertThrows(IOException.class, () -> albumService.streamAlbums(out));
+		assertEquals(0,
+				circuitBreakers.circuitBreaker(AlbumService.LIST_BREAKER).getMetrics().getNumberOfFailedCalls());
 	}
 
 }
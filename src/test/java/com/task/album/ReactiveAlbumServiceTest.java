@@ -0,0 +1,169 @@
+package com.task.album;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.task.client.Hedger;
+import com.task.client.UpstreamGuard;
+import com.task.config.HedgingProperties;
+import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.ErrorMetrics;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.Snapshot;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveAlbumServiceTest {
+
+	private static final String API_URL = "https://jsonplaceholder.typicode.com";
+
+	@InjectMocks
+	private ReactiveAlbumService reactiveAlbumService;
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
+	@Mock
+	private AlbumService albumService;
+
+	private final Hedger hedger = new Hedger(new HedgingProperties(), new SimpleMeterRegistry());
+
+	@Spy
+	private UpstreamGuard upstreamGuard = new UpstreamGuard(CircuitBreakerRegistry.ofDefaults(),
+			BulkheadRegistry.ofDefaults(), RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), hedger,
+			new SimpleMeterRegistry());
+
+	@Spy
+	private ErrorMetrics errorMetrics = new ErrorMetrics(new SimpleMeterRegistry());
+
+	private ClientRequest lastRequest;
+
+	private void respondWith(final String body) {
+		WebClient webClient = WebClient.builder().baseUrl(API_URL).exchangeFunction(request -> {
+			lastRequest = request;
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(body).build());
+		}).build();
+		ReflectionTestUtils.setField(reactiveAlbumService, "upstreamWebClient", webClient);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		hedger.shutdown();
+	}
+
+	@Test
+	public void testGetAlbums_IsSuccessfull() {
+		respondWith("[{\"userId\":1,\"id\":1,\"title\":\"mock title 1\"},{\"userId\":2,\"id\":2,\"title\":\"mock title 2\"}]");
+
+		StepVerifier.create(reactiveAlbumService.getAlbums())
+				.expectNext(new Album(1, 1, "mock title 1"), new Album(2, 2, "mock title 2")).verifyComplete();
+		assertEquals(URI.create(API_URL + "/albums"), lastRequest.url());
+	}
+
+	@Test
+	public void testGetAlbumById_IsSuccessfull() {
+		respondWith("{\"userId\":1,\"id\":1,\"title\":\"mock title\"}");
+
+		StepVerifier.create(reactiveAlbumService.getAlbumById(1)).expectNext(new Album(1, 1, "mock title"))
+				.verifyComplete();
+		assertEquals(URI.create(API_URL + "/albums/1"), lastRequest.url());
+	}
+
+	@Test
+	public void testGetAlbumById_BodyIsEmpty_ErrorIsEmitted() {
+		respondWith("");
+
+		StepVerifier.create(reactiveAlbumService.getAlbumById(1)).expectError(ApiResponseNotValidException.class)
+				.verify();
+	}
+
+	@Test
+	public void testGetAlbumsByTitle_IsSuccessfull() {
+		respondWith("[{\"userId\":1,\"id\":1,\"title\":\"title\"}]");
+
+		StepVerifier.create(reactiveAlbumService.getAlbumsByTitle("title")).expectNext(new Album(1, 1, "title"))
+				.verifyComplete();
+		assertEquals(URI.create(API_URL + "/albums?title=title"), lastRequest.url());
+	}
+
+	@Test
+	public void testUpdateAlbum_IsSuccessfull() {
+		respondWith("{}");
+
+		StepVerifier.create(reactiveAlbumService.updateAlbum(new Album(1, 1, "mock title"))).verifyComplete();
+		assertEquals(HttpMethod.PUT, lastRequest.method());
+		assertEquals(URI.create(API_URL + "/albums/1"), lastRequest.url());
+		Mockito.verify(albumService).invalidateAlbum(1);
+	}
+
+	@Test
+	public void testDeleteAlbumById_IsSuccessfull() {
+		respondWith("{}");
+
+		StepVerifier.create(reactiveAlbumService.deleteAlbumById(1)).verifyComplete();
+		assertEquals(HttpMethod.DELETE, lastRequest.method());
+		assertEquals(URI.create(API_URL + "/albums/1"), lastRequest.url());
+		Mockito.verify(albumService).invalidateAlbum(1);
+	}
+
+	@Test
+	public void testCreateAlbum_IsSuccessfull() {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		respondWith("{\"userId\":1,\"id\":101,\"title\":\"mock title\"}");
+
+		StepVerifier.create(reactiveAlbumService.createAlbum(expectedAlbum)).expectNext(expectedAlbum)
+				.verifyComplete();
+		assertEquals(HttpMethod.POST, lastRequest.method());
+		Mockito.verify(albumService).invalidateAlbums();
+	}
+
+	@Test
+	public void testGetAlbumById_Snapshotted_ApiIsNotCalled() {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		entitySnapshots.getAlbums().publish(new Snapshot<>(List.of(expectedAlbum), Album::getId, Instant.now()), 0);
+		respondWith("{}");
+
+		StepVerifier.create(reactiveAlbumService.getAlbumById(1)).expectNext(expectedAlbum).verifyComplete();
+		StepVerifier.create(reactiveAlbumService.getAlbums()).expectNext(expectedAlbum).verifyComplete();
+		assertNull(lastRequest);
+	}
+
+	@Test
+	public void testGetAndSaveAlbumById_IsSuccessfull() throws Exception {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		respondWith("{\"userId\":1,\"id\":1,\"title\":\"mock title\"}");
+		Mockito.when(albumService.saveAlbum(expectedAlbum)).thenReturn(expectedAlbum);
+
+		StepVerifier.create(reactiveAlbumService.getAndSaveAlbumById(1)).expectNext(expectedAlbum).verifyComplete();
+	}
+
+}
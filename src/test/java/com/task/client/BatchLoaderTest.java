@@ -0,0 +1,159 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.task.album.Album;
+import com.task.config.BatchProperties;
+import com.task.config.CacheConfig;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class BatchLoaderTest {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ALBUMS);
+
+	private final AtomicInteger singleCalls = new AtomicInteger();
+
+	private final AtomicInteger collectionCalls = new AtomicInteger();
+
+	private BatchLoader batchLoader;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	@BeforeEach
+	public void setUp() {
+		batchLoader = buildLoader(3, 8);
+	}
+
+	private BatchLoader buildLoader(final int collectionThreshold, final int parallelism) {
+		BatchProperties properties = new BatchProperties();
+		properties.setMaxIds(10);
+		properties.setCollectionThreshold(collectionThreshold);
+		properties.setParallelism(parallelism);
+		return new BatchLoader(properties, cacheManager);
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		batchLoader.shutdown();
+	}
+
+	private Album fetchAlbum(final Integer albumId) {
+		singleCalls.incrementAndGet();
+		if (albumId > 100) {
+			throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+		}
+		return new Album(1, albumId, "title " + albumId);
+	}
+
+	private Album fetchAlbumSlowly(final Integer albumId) {
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			Thread.sleep(20);
+			return fetchAlbum(albumId);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private List<Album> fetchAlbums() {
+		collectionCalls.incrementAndGet();
+		return List.of(new Album(1, 1, "title 1"), new Album(1, 2, "title 2"), new Album(1, 3, "title 3"));
+	}
+
+	@Test
+	public void testLoad_FewMissingIds_FetchesEachInRequestOrder() {
+		cacheManager.getCache(CacheConfig.ALBUMS).put(2, new Album(1, 2, "cached"));
+
+		List<BatchResult<Album>> results = batchLoader.load(CacheConfig.ALBUMS, List.of(3, 2, 101, 3),
+				this::fetchAlbum, this::fetchAlbums, Album::getId);
+
+		assertEquals(List.of(BatchResult.found(3, new Album(1, 3, "title 3")),
+				BatchResult.found(2, new Album(1, 2, "cached")), BatchResult.failed(101, BatchLoader.NOT_FOUND),
+				BatchResult.found(3, new Album(1, 3, "title 3"))), results);
+		assertEquals(2, singleCalls.get());
+		assertEquals(0, collectionCalls.get());
+	}
+
+	@Test
+	public void testLoad_ManyMissingIds_FetchesTheCollectionOnce() {
+		List<BatchResult<Album>> results = batchLoader.load(CacheConfig.ALBUMS, List.of(2, 1, 3, 4),
+				this::fetchAlbum, this::fetchAlbums, Album::getId);
+
+		assertEquals(List.of(BatchResult.found(2, new Album(1, 2, "title 2")),
+				BatchResult.found(1, new Album(1, 1, "title 1")), BatchResult.found(3, new Album(1, 3, "title 3")),
+				BatchResult.failed(4, BatchLoader.NOT_FOUND)), results);
+		assertEquals(0, singleCalls.get());
+		assertEquals(1, collectionCalls.get());
+	}
+
+	@Test
+	public void testLoad_TooManyIds_ExceptionIsThrown() {
+		List<Integer> ids = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> batchLoader.load(CacheConfig.ALBUMS, ids, this::fetchAlbum, this::fetchAlbums, Album::getId));
+	}
+
+	@Test
+	public void testLoad_MissingIds_AtMostParallelismFetchesPerBatch() throws InterruptedException {
+		batchLoader.shutdown();
+		batchLoader = buildLoader(100, 2);
+
+		List<BatchResult<Album>> results = batchLoader.load(CacheConfig.ALBUMS, List.of(1, 2, 3, 4, 5, 6),
+				this::fetchAlbumSlowly, this::fetchAlbums, Album::getId);
+
+		assertEquals(6, results.size());
+		assertEquals(6, singleCalls.get());
+		assertEquals(2, maxInFlight.get());
+	}
+
+	@Test
+	public void testLoad_EmptyId_ExceptionIsThrown() {
+		List<Integer> ids = Arrays.asList(1, null, 2);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> batchLoader.load(CacheConfig.ALBUMS, ids, this::fetchAlbum, this::fetchAlbums, Album::getId));
+		assertEquals(0, singleCalls.get());
+	}
+
+	@Test
+	public void testLoadReactive_EmptyId_ErrorIsEmitted() {
+		Flux<BatchResult<Album>> results = batchLoader.loadReactive(Arrays.asList(1, null, 2),
+				albumId -> Mono.fromCallable(() -> fetchAlbum(albumId)), () -> Flux.fromIterable(fetchAlbums()),
+				Album::getId);
+
+		StepVerifier.create(results).verifyError(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testLoadReactive_FewIds_FetchesEachInRequestOrder() {
+		Flux<BatchResult<Album>> results = batchLoader.loadReactive(List.of(2, 101),
+				albumId -> Mono.fromCallable(() -> fetchAlbum(albumId)), () -> Flux.fromIterable(fetchAlbums()),
+				Album::getId);
+
+		StepVerifier.create(results).expectNext(BatchResult.found(2, new Album(1, 2, "title 2")),
+				BatchResult.failed(101, BatchLoader.NOT_FOUND)).verifyComplete();
+		assertEquals(0, collectionCalls.get());
+	}
+
+}
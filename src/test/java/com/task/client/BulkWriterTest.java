@@ -0,0 +1,246 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.task.album.Album;
+import com.task.client.BulkOperation.Type;
+import com.task.config.BatchProperties;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class BulkWriterTest {
+
+	private final List<Integer> deleted = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private BulkWriter bulkWriter;
+
+	@BeforeEach
+	public void setUp() {
+		BatchProperties properties = new BatchProperties();
+		properties.setMaxOperations(5);
+		properties.setWriteParallelism(3);
+		bulkWriter = new BulkWriter(properties);
+	}
+
+	@AfterEach
+	public void tearDown() throws InterruptedException {
+		bulkWriter.shutdown();
+	}
+
+	private Album createAlbum(final Album album) {
+		return new Album(album.getUserId(), 101, album.getTitle());
+	}
+
+	private void updateAlbum(final Album album) {
+		if (album.getId() > 100) {
+			throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+		}
+	}
+
+	private void deleteSlowly(final Integer albumId) {
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			Thread.sleep(50);
+			deleted.add(albumId);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private List<BulkResult<Album>> write(final List<BulkOperation<Album>> operations, final EntityCreate<Album> create)
+			throws Exception {
+
+		List<BulkResult<Album>> results = new ArrayList<>();
+		bulkWriter.write(operations, create, this::updateAlbum, deleted::add, Album::getId, results::add);
+		results.sort(Comparator.comparingInt(BulkResult::getIndex));
+		return results;
+	}
+
+	@Test
+	public void testWrite_MixedOperations_OneResultPerOperation() throws Exception {
+		List<BulkResult<Album>> results = write(
+				List.of(new BulkOperation<>(Type.CREATE, null, new Album(1, null, "new")),
+						new BulkOperation<>(Type.UPDATE, null, new Album(1, 2, "updated")),
+						new BulkOperation<>(Type.DELETE, 3, null)),
+				this::createAlbum);
+
+		assertEquals(List.of(BulkResult.succeeded(0, Type.CREATE, null, new Album(1, 101, "new")),
+				BulkResult.succeeded(1, Type.UPDATE, 2, null), BulkResult.succeeded(2, Type.DELETE, 3, null)), results);
+		assertEquals(List.of(3), deleted);
+	}
+
+	@Test
+	public void testWrite_OperationFails_OthersSucceed() throws Exception {
+		List<BulkResult<Album>> results = write(List.of(new BulkOperation<>(Type.UPDATE, null, new Album(1, 101, "x")),
+				new BulkOperation<>(Type.DELETE, 4, null)), this::createAlbum);
+
+		assertEquals(2, results.size());
+		assertEquals(Type.UPDATE, results.get(0).getOp());
+		assertEquals(101, results.get(0).getId());
+		assertEquals("404 Not Found", results.get(0).getError());
+		assertEquals(BulkResult.succeeded(1, Type.DELETE, 4, null), results.get(1));
+	}
+
+	@Test
+	public void testWrite_InvalidOperations_AreRejected() throws Exception {
+		List<BulkResult<Album>> results = write(List.of(new BulkOperation<>(null, 1, null),
+				new BulkOperation<>(Type.CREATE, null, null), new BulkOperation<>(Type.DELETE, null, null)),
+				this::createAlbum);
+
+		assertEquals(List.of(BulkResult.failed(0, null, 1, BulkWriter.TYPE_REQUIRED),
+				BulkResult.failed(1, Type.CREATE, null, BulkWriter.ENTITY_REQUIRED),
+				BulkResult.failed(2, Type.DELETE, null, BulkWriter.ID_REQUIRED)), results);
+		assertEquals(List.of(), deleted);
+	}
+
+	@Test
+	public void testWrite_OperationsRunConcurrently() throws Exception {
+		CountDownLatch allStarted = new CountDownLatch(3);
+		EntityCreate<Album> create = album -> {
+			allStarted.countDown();
+			try {
+				if (!allStarted.await(5, TimeUnit.SECONDS)) {
+					throw new IllegalStateException("The creates did not run concurrently");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return createAlbum(album);
+		};
+
+		List<BulkResult<Album>> results = write(List.of(new BulkOperation<>(Type.CREATE, null, new Album(1, null, "a")),
+				new BulkOperation<>(Type.CREATE, null, new Album(1, null, "b")),
+				new BulkOperation<>(Type.CREATE, null, new Album(1, null, "c"))), create);
+
+		assertEquals(List.of(BulkResult.succeeded(0, Type.CREATE, null, new Album(1, 101, "a")),
+				BulkResult.succeeded(1, Type.CREATE, null, new Album(1, 101, "b")),
+				BulkResult.succeeded(2, Type.CREATE, null, new Album(1, 101, "c"))), results);
+	}
+
+	@Test
+	public void testWrite_SameId_RunInRequestOrder() throws Exception {
+		Consumer<Album> update = album -> {
+			sleep(50);
+			calls.add("update " + album.getId());
+		};
+
+		bulkWriter.write(List.of(new BulkOperation<>(Type.UPDATE, null, new Album(1, 2, "updated")),
+				new BulkOperation<>(Type.DELETE, 2, null), new BulkOperation<>(Type.DELETE, 3, null)),
+				this::createAlbum, update, albumId -> calls.add("delete " + albumId), Album::getId, result -> {
+				});
+
+		assertTrue(calls.indexOf("update 2") < calls.indexOf("delete 2"));
+		assertEquals(3, calls.size());
+	}
+
+	@Test
+	public void testWrite_ManyOperations_AtMostWriteParallelismRun() throws Exception {
+		List<BulkResult<Album>> results = new ArrayList<>();
+		List<BulkOperation<Album>> operations = List.of(new BulkOperation<>(Type.DELETE, 1, null),
+				new BulkOperation<>(Type.DELETE, 2, null), new BulkOperation<>(Type.DELETE, 3, null),
+				new BulkOperation<>(Type.DELETE, 4, null), new BulkOperation<>(Type.DELETE, 5, null));
+
+		bulkWriter.write(operations, this::createAlbum, this::updateAlbum, this::deleteSlowly, Album::getId,
+				results::add);
+
+		assertEquals(5, results.size());
+		assertEquals(3, maxInFlight.get());
+	}
+
+	@Test
+	public void testWrite_SinkFails_RemainingOperationsAreNotSent() throws Exception {
+		List<BulkOperation<Album>> operations = List.of(new BulkOperation<>(Type.DELETE, 1, null),
+				new BulkOperation<>(Type.DELETE, 2, null), new BulkOperation<>(Type.DELETE, 3, null),
+				new BulkOperation<>(Type.DELETE, 4, null), new BulkOperation<>(Type.DELETE, 5, null));
+
+		assertThrows(IOException.class, () -> bulkWriter.write(operations, this::createAlbum, this::updateAlbum,
+				this::deleteSlowly, Album::getId, result -> {
+					throw new IOException("Broken pipe");
+				}));
+		Thread.sleep(200);
+
+		assertTrue(deleted.size() < operations.size());
+		assertEquals(0, inFlight.get());
+	}
+
+	@Test
+	public void testWrite_TooManyOperations_ExceptionIsThrown() {
+		List<BulkOperation<Album>> operations = Collections.nCopies(6, new BulkOperation<>(Type.DELETE, 1, null));
+
+		assertThrows(IllegalArgumentException.class, () -> write(operations, this::createAlbum));
+		assertEquals(List.of(), deleted);
+	}
+
+	@Test
+	public void testWriteReactive_MixedOperations_OneResultPerOperation() {
+		List<BulkOperation<Album>> operations = List.of(
+				new BulkOperation<>(Type.CREATE, null, new Album(1, null, "new")),
+				new BulkOperation<>(Type.UPDATE, null, new Album(1, 2, "updated")),
+				new BulkOperation<>(Type.DELETE, 3, null));
+
+		StepVerifier.create(bulkWriter.writeReactive(operations, album -> Mono.just(createAlbum(album)),
+				album -> Mono.empty(), albumId -> Mono.error(new IllegalStateException("Upstream down")),
+				Album::getId).collectSortedList(Comparator.comparingInt(BulkResult::getIndex)))
+				.expectNext(List.of(BulkResult.succeeded(0, Type.CREATE, null, new Album(1, 101, "new")),
+						BulkResult.succeeded(1, Type.UPDATE, 2, null),
+						BulkResult.failed(2, Type.DELETE, 3, "Upstream down")))
+				.verifyComplete();
+	}
+
+	@Test
+	public void testWriteReactive_SameId_RunInRequestOrder() {
+		List<BulkOperation<Album>> operations = List.of(
+				new BulkOperation<>(Type.UPDATE, null, new Album(1, 2, "updated")),
+				new BulkOperation<>(Type.DELETE, 2, null), new BulkOperation<>(Type.DELETE, 3, null));
+
+		StepVerifier.create(bulkWriter.writeReactive(operations, album -> Mono.just(createAlbum(album)),
+				this::updateLater, albumId -> Mono.fromRunnable(() -> calls.add("delete " + albumId)), Album::getId))
+				.expectNextCount(3).verifyComplete();
+
+		assertTrue(calls.indexOf("update 2") < calls.indexOf("delete 2"));
+		assertEquals(3, calls.size());
+	}
+
+	private Mono<Void> updateLater(final Album album) {
+		return Mono.delay(Duration.ofMillis(50)).then(Mono.fromRunnable(() -> calls.add("update " + album.getId())));
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
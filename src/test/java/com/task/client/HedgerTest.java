@@ -0,0 +1,102 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.task.config.HedgingProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class HedgerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private Hedger hedger;
+
+	@BeforeEach
+	public void setUp() {
+		HedgingProperties properties = new HedgingProperties();
+		properties.setEnabled(true);
+		properties.setMinSamples(0);
+		properties.setMinDelay(Duration.ofMillis(20));
+		hedger = new Hedger(properties, meterRegistry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		hedger.shutdown();
+	}
+
+	@Test
+	public void testCall_SlowFirstAttempt_HedgeAnswers() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String body = hedger.call("user-by-id", () -> {
+			if (attempts.incrementAndGet() == 1) {
+				awaitRelease();
+				return "slow";
+			}
+			return "fast";
+		});
+
+		assertEquals("fast", body);
+		assertEquals(1, meterRegistry.get("upstream.hedges").tag("endpoint", "user-by-id").counter().count());
+		assertEquals(1, meterRegistry.get("upstream.hedge.wins").tag("endpoint", "user-by-id").counter().count());
+	}
+
+	@Test
+	public void testCall_Disabled_CallsOnce() {
+		Hedger disabled = new Hedger(new HedgingProperties(), meterRegistry);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertEquals(1, (int) disabled.call("user-by-id", attempts::incrementAndGet));
+		assertEquals(1, attempts.get());
+		disabled.shutdown();
+	}
+
+	@Test
+	public void testCallMono_SlowFirstAttempt_HedgeAnswers() {
+		AtomicInteger attempts = new AtomicInteger();
+		Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("fast"));
+
+		StepVerifier.create(hedger.call("album-by-id", call)).expectNext("fast").verifyComplete();
+		assertEquals(2, attempts.get());
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void testCall_HedgingDisabled_LatencyIsRecorded() {
+		Hedger disabled = new Hedger(new HedgingProperties(), meterRegistry);
+		try {
+			assertEquals("body", disabled.call("user-list", () -> "body"));
+			StepVerifier.create(disabled.call("user-by-id", Mono.just("body"))).expectNext("body").verifyComplete();
+		} finally {
+			disabled.shutdown();
+		}
+
+		assertEquals(1, meterRegistry.get("upstream.latency").tag("endpoint", "user-list").timer().count());
+		assertEquals(1, meterRegistry.get("upstream.latency").tag("endpoint", "user-by-id").timer().count());
+		assertEquals(0, meterRegistry.find("upstream.hedges").counters().size());
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.album.Album;
+
+@ExtendWith(MockitoExtension.class)
+public class NdjsonStreamerTest {
+
+	private static final URI ALBUMS_URI = URI.create("https://jsonplaceholder.typicode.com/albums");
+
+	@InjectMocks
+	private NdjsonStreamer ndjsonStreamer;
+
+	@Spy
+	private RestTemplate restTemplate = new RestTemplate();
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	private MockRestServiceServer upstream;
+
+	@BeforeEach
+	public void bindUpstream() {
+		upstream = MockRestServiceServer.bindTo(restTemplate).build();
+	}
+
+	@Test
+	public void testStream_ArrayIsWrittenAsNdjson() throws IOException {
+		upstream.expect(requestTo(ALBUMS_URI)).andRespond(withSuccess(
+				"[ {\"userId\": 1, \"id\": 1, \"title\": \"mock title 1\"},\n {\"userId\": 2, \"id\": 2, \"title\": \"mock title 2\"} ]",
+				MediaType.APPLICATION_JSON));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		ndjsonStreamer.stream(ALBUMS_URI, Album.class, out);
+
+		assertEquals("{\"userId\":1,\"id\":1,\"title\":\"mock title 1\"}\n{\"userId\":2,\"id\":2,\"title\":\"mock title 2\"}\n",
+				out.toString(StandardCharsets.UTF_8));
+		upstream.verify();
+	}
+
+	@Test
+	public void testStream_BodyIsNotAnArray_ExceptionIsThrown() {
+		upstream.expect(requestTo(ALBUMS_URI))
+				.andRespond(withSuccess("{\"userId\": 1, \"id\": 1, \"title\": \"mock title\"}", MediaType.APPLICATION_JSON));
+
+		assertThrows(RestClientException.class,
+				() -> ndjsonStreamer.stream(ALBUMS_URI, Album.class, new ByteArrayOutputStream()));
+	}
+
+	@Test
+	public void testOpen_ServerError_ExceptionIsThrown() {
+		upstream.expect(requestTo(ALBUMS_URI)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+		assertThrows(HttpServerErrorException.class, () -> ndjsonStreamer.open(ALBUMS_URI));
+	}
+
+}
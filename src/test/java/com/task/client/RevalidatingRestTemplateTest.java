@@ -0,0 +1,113 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.net.URI;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import com.task.album.Album;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RevalidatingRestTemplateTest {
+
+	private static final URI ALBUM_URI = URI.create("http://localhost/albums/1");
+
+	private static final String ALBUM_JSON = "{\"userId\":1,\"id\":1,\"title\":\"title 1\"}";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RevalidatingRestTemplate restTemplate = new RevalidatingRestTemplate(100, meterRegistry);
+
+	private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+	private static HttpHeaders etag(final String etag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(etag);
+		return headers;
+	}
+
+	private double revalidations(final String outcome) {
+		return meterRegistry.get("upstream.revalidations").tag("outcome", outcome).counter().count();
+	}
+
+	@Test
+	public void testGetForEntity_NotModified_StoredResponseIsReused() {
+		server.expect(requestTo(ALBUM_URI)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+				.andRespond(withSuccess(ALBUM_JSON, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+		server.expect(requestTo(ALBUM_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ResponseEntity<Album> first = restTemplate.getForEntity(ALBUM_URI, Album.class);
+		ResponseEntity<Album> second = restTemplate.getForEntity(ALBUM_URI, Album.class);
+
+		server.verify();
+		assertEquals(new Album(1, 1, "title 1"), first.getBody());
+		assertSame(first.getBody(), second.getBody());
+		assertEquals(1, revalidations("not_modified"));
+	}
+
+	@Test
+	public void testGetForEntity_Modified_NewResponseIsStored() {
+		server.expect(requestTo(ALBUM_URI))
+				.andRespond(withSuccess(ALBUM_JSON, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+		server.expect(requestTo(ALBUM_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+				.andRespond(withSuccess("{\"userId\":1,\"id\":1,\"title\":\"title 2\"}", MediaType.APPLICATION_JSON)
+						.headers(etag("\"v2\"")));
+		server.expect(requestTo(ALBUM_URI)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ResponseEntity<Album> first = restTemplate.getForEntity(ALBUM_URI, Album.class);
+		ResponseEntity<Album> second = restTemplate.getForEntity(ALBUM_URI, Album.class);
+		ResponseEntity<Album> third = restTemplate.getForEntity(ALBUM_URI, Album.class);
+
+		server.verify();
+		assertNotSame(first.getBody(), second.getBody());
+		assertEquals(new Album(1, 1, "title 2"), second.getBody());
+		assertSame(second.getBody(), third.getBody());
+		assertEquals(1, revalidations("modified"));
+	}
+
+	@Test
+	public void testGetForEntity_LastModified_IsSentBack() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setLastModified(ZonedDateTime.parse("2021-05-01T10:00:00Z"));
+		server.expect(requestTo(ALBUM_URI))
+				.andRespond(withSuccess(ALBUM_JSON, MediaType.APPLICATION_JSON).headers(headers));
+		server.expect(requestTo(ALBUM_URI))
+				.andExpect(header(HttpHeaders.IF_MODIFIED_SINCE, "Sat, 01 May 2021 10:00:00 GMT"))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+		ResponseEntity<Album> first = restTemplate.getForEntity(ALBUM_URI, Album.class);
+
+		assertSame(first, restTemplate.getForEntity(ALBUM_URI, Album.class));
+		server.verify();
+	}
+
+	@Test
+	public void testGetForEntity_NoValidators_NothingIsStored() {
+		server.expect(requestTo(ALBUM_URI)).andRespond(withSuccess(ALBUM_JSON, MediaType.APPLICATION_JSON));
+		server.expect(requestTo(ALBUM_URI)).andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+				.andRespond(withSuccess(ALBUM_JSON, MediaType.APPLICATION_JSON));
+
+		restTemplate.getForEntity(ALBUM_URI, Album.class);
+		restTemplate.getForEntity(ALBUM_URI, Album.class);
+
+		server.verify();
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+	private final SingleFlight singleFlight = new SingleFlight();
+
+	@Test
+	public void testExecute_ConcurrentCallsForSameKey_ShareOneCall() throws Exception {
+		int callers = 8;
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+					calls.incrementAndGet();
+					await(release);
+					return "result";
+				})));
+			}
+
+			while (calls.get() == 0) {
+				Thread.sleep(5);
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("result", result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, calls.get());
+			assertEquals(0, singleFlight.getInFlightCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testExecute_SequentialCalls_AreNotShared() {
+		AtomicInteger calls = new AtomicInteger();
+
+		singleFlight.execute("key", calls::incrementAndGet);
+		singleFlight.execute("key", calls::incrementAndGet);
+
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void testExecute_CallFails_ExceptionIsRethrown() {
+		assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+			throw new IllegalStateException("upstream error");
+		}));
+		assertEquals(0, singleFlight.getInFlightCount());
+	}
+
+	@Test
+	public void testExecute_CallThrowsError_WaitersFail() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<Object> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+				started.countDown();
+				await(release);
+				throw new AssertionError("upstream error");
+			}));
+			await(started);
+			Future<Object> waiter = executor.submit(() -> singleFlight.execute("key", () -> "not shared"));
+			Thread.sleep(100);
+			release.countDown();
+
+			ExecutionException leaderError = assertThrows(ExecutionException.class,
+					() -> leader.get(5, TimeUnit.SECONDS));
+			assertTrue(leaderError.getCause() instanceof AssertionError);
+			ExecutionException waiterError = assertThrows(ExecutionException.class,
+					() -> waiter.get(5, TimeUnit.SECONDS));
+			assertTrue(waiterError.getCause() instanceof AssertionError);
+			assertEquals(0, singleFlight.getInFlightCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.task.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.task.config.HedgingProperties;
+import com.task.exception.UpstreamUnavailableException;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class UpstreamGuardTest {
+
+	private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+			.slidingWindowSize(4).minimumNumberOfCalls(4).failureRateThreshold(50).build());
+
+	private final BulkheadRegistry bulkheads = BulkheadRegistry
+			.of(BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build());
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final Hedger hedger = new Hedger(new HedgingProperties(), meterRegistry);
+
+	private final UpstreamGuard upstreamGuard = new UpstreamGuard(circuitBreakers, bulkheads,
+			RetryRegistry.of(RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(1))
+					.retryExceptions(ResourceAccessException.class).build()), hedger, meterRegistry);
+
+	@AfterEach
+	public void shutdown() {
+		hedger.shutdown();
+	}
+
+	@Test
+	public void testCall_IsSuccessfull() {
+		assertEquals("body", upstreamGuard.call("users", "user-by-id", () -> "body"));
+	}
+
+	@Test
+	public void testCall_BreakerOpen_FailsFastWithoutCallingTheApi() {
+		AtomicInteger calls = new AtomicInteger();
+		for (int i = 0; i < 4; i++) {
+			assertThrows(ResourceAccessException.class, () -> upstreamGuard.call("users", "user-by-id", () -> {
+				calls.incrementAndGet();
+				throw new ResourceAccessException("Read timed out");
+			}));
+		}
+
+		assertThrows(UpstreamUnavailableException.class,
+				() -> upstreamGuard.call("users", "user-by-id", calls::incrementAndGet));
+		assertEquals(4, calls.get());
+		assertEquals("body", upstreamGuard.call("users", "user-list", () -> "body"));
+	}
+
+	@Test
+	public void testCall_BulkheadFull_IsRejected() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread slowCall = new Thread(() -> upstreamGuard.call("users", "user-list", () -> {
+			started.countDown();
+			try {
+				return release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}));
+		slowCall.start();
+		started.await(5, TimeUnit.SECONDS);
+
+		assertThrows(UpstreamUnavailableException.class, () -> upstreamGuard.call("users", "user-by-id", () -> "body"));
+		assertEquals("body", upstreamGuard.call("albums", "album-by-id", () -> "body"));
+
+		release.countDown();
+		slowCall.join();
+	}
+
+	@Test
+	public void testRead_TransientFailure_IsRetriedAndCounted() {
+		AtomicInteger calls = new AtomicInteger();
+
+		String body = upstreamGuard.read("users", "user-by-id", () -> {
+			if (calls.incrementAndGet() < 3) {
+				throw new ResourceAccessException("Connection reset");
+			}
+			return "body";
+		});
+
+		assertEquals("body", body);
+		assertEquals(3, calls.get());
+		assertEquals(2, meterRegistry.get("upstream.retries").tag("name", "users").counter().count());
+		assertEquals(2, meterRegistry.get("upstream.requests").tags("endpoint", "user-by-id", "exception",
+				"ResourceAccessException").timer().count());
+		assertEquals(1, meterRegistry.get("upstream.requests").tags("endpoint", "user-by-id", "exception", "None")
+				.timer().count());
+	}
+
+	@Test
+	public void testReadMono_AttemptIsTimed() {
+		StepVerifier.create(upstreamGuard.read("albums", "album-by-id", Mono.just("body"))).expectNext("body")
+				.verifyComplete();
+
+		assertEquals(1, meterRegistry.get("upstream.requests").tags("endpoint", "album-by-id", "exception", "None")
+				.timer().count());
+	}
+
+	@Test
+	public void testCall_Write_IsNotRetried() {
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThrows(ResourceAccessException.class, () -> upstreamGuard.run("users", "user-write", () -> {
+			calls.incrementAndGet();
+			throw new ResourceAccessException("Connection reset");
+		}));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testCallMono_BreakerOpen_ErrorIsEmitted() {
+		circuitBreakers.circuitBreaker("album-list").transitionToOpenState();
+
+		StepVerifier.create(upstreamGuard.call("albums", "album-list", Mono.just("body")))
+				.expectError(UpstreamUnavailableException.class).verify();
+	}
+
+}
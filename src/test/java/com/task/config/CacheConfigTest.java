@@ -0,0 +1,76 @@
+package com.task.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+
+@SpringBootTest
+public class CacheConfigTest {
+
+	private static final URI ALBUM_URI = URI.create("https://jsonplaceholder.typicode.com/albums/1");
+
+	@Autowired
+	private AlbumService albumService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@MockBean
+	private RestTemplate restTemplate;
+
+	@BeforeEach
+	public void clearCaches() {
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	@Test
+	public void testGetAlbumById_SecondCallIsServedFromCache() throws Exception {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		Mockito.when(restTemplate.getForEntity(ALBUM_URI, Album.class)).thenReturn(ResponseEntity.ok(expectedAlbum));
+
+		assertEquals(expectedAlbum, albumService.getAlbumById(1));
+		assertEquals(expectedAlbum, albumService.getAlbumById(1));
+
+		verify(restTemplate, times(1)).getForEntity(ALBUM_URI, Album.class);
+	}
+
+	@Test
+	public void testUpdateAlbum_CachedAlbumIsEvicted() throws Exception {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		Mockito.when(restTemplate.getForEntity(ALBUM_URI, Album.class)).thenReturn(ResponseEntity.ok(expectedAlbum));
+
+		albumService.getAlbumById(1);
+		albumService.updateAlbum(expectedAlbum);
+		albumService.getAlbumById(1);
+
+		verify(restTemplate, times(2)).getForEntity(ALBUM_URI, Album.class);
+	}
+
+	@Test
+	public void testInvalidateAlbum_CachedAlbumIsEvicted() throws Exception {
+		Album expectedAlbum = new Album(1, 1, "mock title");
+		Mockito.when(restTemplate.getForEntity(ALBUM_URI, Album.class)).thenReturn(ResponseEntity.ok(expectedAlbum));
+
+		albumService.getAlbumById(1);
+		albumService.invalidateAlbum(1);
+		albumService.getAlbumById(1);
+
+		verify(restTemplate, times(2)).getForEntity(ALBUM_URI, Album.class);
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.task.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.task.client.RevalidatingRestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HttpClientConfigTest {
+
+	private final HttpClientConfig httpClientConfig = new HttpClientConfig();
+
+	@Test
+	public void testUpstreamConnectionManager_PoolLimitsAreApplied() {
+		HttpClientProperties properties = new HttpClientProperties();
+		properties.setMaxTotal(20);
+		properties.setMaxPerRoute(5);
+		properties.setValidateAfterInactivity(Duration.ofMillis(500));
+
+		PoolingHttpClientConnectionManager connectionManager = httpClientConfig.upstreamConnectionManager(properties);
+
+		assertEquals(20, connectionManager.getMaxTotal());
+		assertEquals(5, connectionManager.getDefaultMaxPerRoute());
+		assertEquals(500, connectionManager.getValidateAfterInactivity());
+		connectionManager.close();
+	}
+
+	@Test
+	public void testRestTemplate_UsesPooledRequestFactory() throws Exception {
+		HttpClientProperties properties = new HttpClientProperties();
+		PoolingHttpClientConnectionManager connectionManager = httpClientConfig.upstreamConnectionManager(properties);
+
+		try (CloseableHttpClient httpClient = httpClientConfig.upstreamHttpClient(connectionManager, properties)) {
+			RestTemplate restTemplate = httpClientConfig.restTemplate(new RestTemplateBuilder(), httpClient, properties,
+					new SimpleMeterRegistry());
+
+			assertTrue(restTemplate instanceof RevalidatingRestTemplate);
+			assertTrue(restTemplate.getRequestFactory() instanceof HttpComponentsClientHttpRequestFactory);
+		}
+	}
+
+}
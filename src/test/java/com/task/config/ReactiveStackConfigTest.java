@@ -0,0 +1,25 @@
+package com.task.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "storage.local-reads=false")
+@ActiveProfiles("reactive")
+public class ReactiveStackConfigTest {
+
+	@Autowired
+	private WebServerApplicationContext context;
+
+	@Test
+	public void testReactiveProfile_IsServedByNetty() {
+		assertTrue(context.getWebServer() instanceof NettyWebServer, context.getWebServer().getClass().getName());
+	}
+
+}
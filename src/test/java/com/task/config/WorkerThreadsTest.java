@@ -0,0 +1,165 @@
+package com.task.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+public class WorkerThreadsTest {
+
+	static boolean virtualSupported() {
+		return WorkerThreads.isVirtualSupported();
+	}
+
+	private static boolean isVirtual(final Thread thread) throws ReflectiveOperationException {
+		return virtualSupported() && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+	}
+
+	@Test
+	public void testPlatform_AreNamedDaemons() throws Exception {
+		ThreadFactory threadFactory = WorkerThreads.platform("batch");
+
+		Thread first = threadFactory.newThread(() -> {
+		});
+		Thread second = threadFactory.newThread(() -> {
+		});
+
+		assertFalse(isVirtual(first));
+		assertTrue(first.isDaemon());
+		assertEquals("batch-1", first.getName());
+		assertEquals("batch-2", second.getName());
+	}
+
+	@Test
+	public void testPool_PlatformThreads_TasksRunOnPooledPlatformThreads() throws Exception {
+		ExecutorService pool = WorkerThreads.pool("batch", 1, new ThreadsProperties());
+		try {
+			AtomicReference<Thread> first = new AtomicReference<>();
+			AtomicReference<Thread> second = new AtomicReference<>();
+
+			pool.submit(() -> first.set(Thread.currentThread())).get();
+			pool.submit(() -> second.set(Thread.currentThread())).get();
+
+			assertFalse(isVirtual(first.get()));
+			assertEquals(first.get(), second.get());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@EnabledIf("virtualSupported")
+	public void testPool_VirtualThreads_EveryTaskGetsANewVirtualThread() throws Exception {
+		ExecutorService pool = WorkerThreads.pool("persistence", 1, virtualThreads());
+		try {
+			AtomicReference<Thread> first = new AtomicReference<>();
+			AtomicReference<Thread> second = new AtomicReference<>();
+
+			pool.submit(() -> first.set(Thread.currentThread())).get();
+			pool.submit(() -> second.set(Thread.currentThread())).get();
+
+			assertTrue(isVirtual(first.get()));
+			assertEquals("persistence-1", first.get().getName());
+			assertEquals("persistence-2", second.get().getName());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@EnabledIf("virtualSupported")
+	public void testPool_VirtualThreads_AtMostSizeTasksRun() throws Exception {
+		ExecutorService pool = WorkerThreads.pool("batch", 2, virtualThreads());
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(10);
+
+		for (int i = 0; i < 10; i++) {
+			pool.execute(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(10);
+				running.decrementAndGet();
+				done.countDown();
+			});
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(2, maxRunning.get());
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@EnabledIf("virtualSupported")
+	public void testHandoffPool_VirtualThreadsAllRunning_TaskIsRejected() throws Exception {
+		ExecutorService pool = WorkerThreads.handoffPool("hedging", 1, virtualThreads());
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			pool.execute(() -> await(release));
+
+			assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> {
+			}));
+		} finally {
+			release.countDown();
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testHandoffPool_PlatformThreadsAllRunning_TaskIsRejected() throws Exception {
+		ExecutorService pool = WorkerThreads.handoffPool("hedging", 1, new ThreadsProperties());
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			pool.execute(() -> await(release));
+
+			assertThrows(RejectedExecutionException.class, () -> pool.execute(() -> {
+			}));
+		} finally {
+			release.countDown();
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisabledIf("virtualSupported")
+	public void testPool_VirtualThreadsBeforeJava21_ExceptionIsThrown() {
+		ThreadsProperties properties = virtualThreads();
+
+		assertThrows(IllegalStateException.class, () -> WorkerThreads.pool("persistence", 1, properties));
+	}
+
+	private static ThreadsProperties virtualThreads() {
+		ThreadsProperties properties = new ThreadsProperties();
+		properties.setVirtual(true);
+		return properties;
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.task.export;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.task.Benchmarks;
+import com.task.album.Album;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+
+/**
+ * JMH measurement of the Jackson hot paths: a User with its nested Address and
+ * Company, and an Album array the size of the API collection, both ways. The
+ * save path (<code>writeValueAsString</code> then <code>getBytes</code>) is
+ * compared with writing the bytes directly. It is skipped by default, run it
+ * with <code>mvn test -Pbenchmark -Dtest=JsonSerializationBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	private static final int ALBUMS = 100;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final User user = new User(1, "Leanne Graham", "Bret", "Sincere@april.biz",
+			new Address("Kulas Light", "Apt. 556", "Gwenborough", "92998-3874"), "1-770-736-8031 x56442",
+			"hildegard.org", new Company("Romaguera-Crona", "Multi-layered client-server neural-net",
+					"harness real-time e-markets"));
+
+	private final Album[] albums = IntStream.rangeClosed(1, ALBUMS)
+			.mapToObj(id -> new Album((id - 1) / 10 + 1, id, "quidem molestiae enim " + id)).toArray(Album[]::new);
+
+	private ObjectWriter userWriter;
+
+	private ObjectReader userReader;
+
+	private ObjectReader albumsReader;
+
+	private byte[] userJson;
+
+	private byte[] albumsJson;
+
+	@Setup
+	public void setUp() throws IOException {
+		userWriter = objectMapper.writerFor(User.class);
+		userReader = objectMapper.readerFor(User.class);
+		albumsReader = objectMapper.readerFor(Album[].class);
+		userJson = objectMapper.writeValueAsBytes(user);
+		albumsJson = objectMapper.writeValueAsBytes(albums);
+	}
+
+	@Benchmark
+	public byte[] serializeUserAsStringThenBytes() throws IOException {
+		return objectMapper.writeValueAsString(user).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] serializeUserAsBytes() throws IOException {
+		return userWriter.writeValueAsBytes(user);
+	}
+
+	@Benchmark
+	public User deserializeUser() throws IOException {
+		return userReader.readValue(userJson);
+	}
+
+	@Benchmark
+	public byte[] serializeAlbums() throws IOException {
+		return objectMapper.writeValueAsBytes(albums);
+	}
+
+	@Benchmark
+	public Album[] deserializeAlbums() throws IOException {
+		return albumsReader.readValue(albumsJson);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void runBenchmark() throws Exception {
+		Benchmarks.run(JsonSerializationBenchmark.class);
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.task.export;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.task.Benchmarks;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+
+/**
+ * JMH comparison of the XML export through the shared XmlExporter with the
+ * previous path, which built a new JAXBContext on every save. It is skipped by
+ * default, run it with <code>mvn test -Pbenchmark -Dtest=XmlExportBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlExportBenchmark {
+
+	private final User user = new User(1, "name", "username", "email",
+			new Address("street", "suite", "city", "zipcode"), "phone", "website",
+			new Company("companyName", "catchPhrase", "bs"));
+
+	private XmlExporter xmlExporter;
+
+	private XmlExporter compactXmlExporter;
+
+	@Setup
+	public void setUp() {
+		xmlExporter = new XmlExporter(true);
+		compactXmlExporter = new XmlExporter(false);
+	}
+
+	@Benchmark
+	public byte[] newContextPerExport() throws JAXBException {
+		JAXBContext context = JAXBContext.newInstance(User.class);
+		Marshaller mar = context.createMarshaller();
+		mar.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		mar.marshal(user, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] sharedXmlExporter() throws JAXBException {
+		return xmlExporter.export(user);
+	}
+
+	@Benchmark
+	public byte[] sharedCompactXmlExporter() throws JAXBException {
+		return compactXmlExporter.export(user);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void runBenchmark() throws Exception {
+		Benchmarks.run(XmlExportBenchmark.class);
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.task.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.task.album.Album;
+
+public class XmlExporterTest {
+
+	@Test
+	public void testExport_Formatted_XmlIsIndented() throws Exception {
+		String xml = new String(new XmlExporter(true).export(new Album(2, 11, "mock title")), StandardCharsets.UTF_8);
+
+		assertTrue(xml.contains("<album>\n    <id>11</id>"));
+	}
+
+	@Test
+	public void testExport_Compact_XmlIsOneLine() throws Exception {
+		String xml = new String(new XmlExporter(false).export(new Album(2, 11, "mock title")), StandardCharsets.UTF_8);
+
+		assertEquals(1, xml.lines().count());
+		assertTrue(xml.contains("<album><id>11</id><title>mock title</title><userId>2</userId></album>"));
+	}
+
+}
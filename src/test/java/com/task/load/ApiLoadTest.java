@@ -0,0 +1,115 @@
+package com.task.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end load test of the application against an in-process stub of the
+ * JSON Placeholder API, so it runs offline. Every scenario sends a number of
+ * requests with a fixed number in flight and reports its throughput, latency
+ * percentiles and error rate in the log and as JSON in
+ * <code>target/load/{scenario}.json</code>.
+ * <p>
+ * It is skipped by default, run it with
+ * <code>mvn test -Dtest=ApiLoadTest -Dloadtest=true</code> and tune it with the
+ * <code>load.*</code> system properties: <code>concurrency</code> (64),
+ * <code>requests</code> (2000), <code>warmup</code> (200),
+ * <code>upstream-latency-ms</code> (50), <code>error-rate</code> (0),
+ * <code>payload-size</code> (0) and <code>scenarios</code> (all). Application
+ * properties can be overridden the same way, e.g.
+ * <code>-Dspring.profiles.active=reactive</code>.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "storage.local-reads=false",
+		"prefetch.enabled=true" })
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ApiLoadTest {
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+
+	private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+
+	private static final int WARMUP = Integer.getInteger("load.warmup", 200);
+
+	private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(Long.getLong("load.upstream-latency-ms", 50));
+
+	private static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.error-rate", "0"));
+
+	private static final int PAYLOAD_SIZE = Integer.getInteger("load.payload-size", 0);
+
+	private static final List<String> SCENARIOS = Arrays
+			.stream(System.getProperty("load.scenarios", "").toUpperCase().split(",")).map(String::trim)
+			.filter(name -> !name.isEmpty()).collect(Collectors.toList());
+
+	private static final Path RESULTS = Paths.get(System.getProperty("load.results", "target/load"));
+
+	@TempDir
+	static Path storage;
+
+	private static StubUpstream upstream;
+
+	private static String upstreamUrl;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@LocalServerPort
+	private int port;
+
+	@BeforeAll
+	static void startUpstream() {
+		upstream = new StubUpstream(UPSTREAM_LATENCY, ERROR_RATE, PAYLOAD_SIZE);
+		upstreamUrl = upstream.start();
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.stop();
+	}
+
+	@DynamicPropertySource
+	static void upstreamProperties(final DynamicPropertyRegistry registry) {
+		registry.add("upstream.http.base-url", () -> upstreamUrl);
+		registry.add("storage.root", () -> storage.toString());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Scenario.class)
+	void run(final Scenario scenario) throws IOException {
+
+		Assumptions.assumeTrue(SCENARIOS.isEmpty() || SCENARIOS.contains(scenario.name()));
+
+		LoadResult result = LoadDriver.run(scenario.name(), port, scenario, CONCURRENCY, WARMUP, REQUESTS);
+
+		log.info("{}: {} requests, {} in flight, {} req/s, p50 {} ms, p90 {} ms, p99 {} ms, max {} ms, "
+				+ "error rate {}", result.getScenario(), result.getRequests(), result.getConcurrency(),
+				Math.round(result.getThroughput()), result.getP50Millis(), result.getP90Millis(),
+				result.getP99Millis(), result.getMaxMillis(), result.getErrorRate());
+		Files.createDirectories(RESULTS);
+		objectMapper.writerWithDefaultPrettyPrinter()
+				.writeValue(RESULTS.resolve(scenario.name().toLowerCase() + ".json").toFile(), result);
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.task.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.ProgrammingTaskApplication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures the bytes sent per request for the large list responses, before
+ * (no compression, null fields written) and after (gzip above
+ * <code>server.compression.min-response-size</code>, null fields left out),
+ * against an in-process stub of the JSON Placeholder API with large entities.
+ * The application is started once per variant, the responses are read as
+ * sent, without decompressing them, and the sizes are logged and written as
+ * JSON in <code>target/load/compression.json</code>.
+ * <p>
+ * It is skipped by default, run it with
+ * <code>mvn test -Dtest=CompressionLoadTest -Dloadtest=true</code> and tune it
+ * with the <code>load.payload-size</code> system property (200, the padded
+ * length of the names and titles).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class CompressionLoadTest {
+
+	private static final int PAYLOAD_SIZE = Integer.getInteger("load.payload-size", 200);
+
+	private static final List<String> PATHS = List.of("/users", "/albums");
+
+	private static final Path RESULTS = Paths.get(System.getProperty("load.results", "target/load"));
+
+	@TempDir
+	Path storage;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	@Test
+	void compare() throws Exception {
+
+		StubUpstream upstream = new StubUpstream(Duration.ZERO, 0, PAYLOAD_SIZE);
+		String upstreamUrl = upstream.start();
+		try {
+			Map<String, Map<String, Integer>> results = new LinkedHashMap<>();
+			results.put("before", run("before", upstreamUrl, "--server.compression.enabled=false",
+					"--spring.jackson.default-property-inclusion=always"));
+			results.put("after", run("after", upstreamUrl));
+
+			PATHS.forEach(path -> log.info("{}: {} bytes before, {} bytes after", path,
+					results.get("before").get(path), results.get("after").get(path)));
+			Files.createDirectories(RESULTS);
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS.resolve("compression.json").toFile(),
+					results);
+		} finally {
+			upstream.stop();
+		}
+	}
+
+	private Map<String, Integer> run(final String name, final String upstreamUrl, final String... overrides)
+			throws IOException, InterruptedException {
+
+		List<String> args = new ArrayList<>(List.of("--server.port=0", "--upstream.http.base-url=" + upstreamUrl,
+				"--storage.root=" + storage.resolve(name), "--storage.local-reads=false"));
+		args.addAll(List.of(overrides));
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProgrammingTaskApplication.class)
+				.run(args.toArray(new String[0]))) {
+
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			Map<String, Integer> sizes = new LinkedHashMap<>();
+			for (String path : PATHS) {
+				sizes.put(path, responseSize(port, path));
+			}
+			return sizes;
+		}
+	}
+
+	private int responseSize(final int port, final String path) throws IOException, InterruptedException {
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept", "application/json").header("Accept-Encoding", "gzip")
+				.timeout(Duration.ofSeconds(30)).build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(path + " returned " + response.statusCode());
+		}
+		return response.body().length;
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.task.load;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Sends the requests of a load test scenario to the application with a fixed
+ * number in flight, over a non-blocking client so the driver itself does not
+ * need a thread per request.
+ */
+public final class LoadDriver {
+
+	private static final Duration TIMEOUT = Duration.ofMinutes(10);
+
+	private LoadDriver() {
+	}
+
+	/**
+	 * Warms the application up with the scenario and then measures it.
+	 *
+	 * @param name        the result name
+	 * @param port        the port of the application
+	 * @param scenario    the scenario
+	 * @param concurrency the number of requests in flight
+	 * @param warmup      the number of requests sent before measuring
+	 * @param requests    the number of measured requests
+	 * @return the result of the measured requests
+	 */
+	public static LoadResult run(final String name, final int port, final Scenario scenario, final int concurrency,
+			final int warmup, final int requests) {
+
+		ConnectionProvider connections = ConnectionProvider.builder("load-test").maxConnections(concurrency)
+				.pendingAcquireMaxCount(-1).build();
+		WebClient client = WebClient.builder().baseUrl("http://localhost:" + port)
+				.clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections))).build();
+		try {
+			drive(client, scenario, concurrency, new long[warmup], new AtomicInteger());
+
+			long[] latencies = new long[requests];
+			AtomicInteger errors = new AtomicInteger();
+			long start = System.nanoTime();
+			drive(client, scenario, concurrency, latencies, errors);
+			return LoadResult.of(name, concurrency, latencies, errors.get(), System.nanoTime() - start);
+		} finally {
+			connections.disposeLater().block();
+		}
+	}
+
+	private static void drive(final WebClient client, final Scenario scenario, final int concurrency,
+			final long[] latencies, final AtomicInteger errors) {
+
+		Flux.range(0, latencies.length).flatMap(n -> {
+			long requestStart = System.nanoTime();
+			return scenario.request(client, n)
+					.exchangeToMono(response -> response.releaseBody()
+							.thenReturn(response.statusCode().is2xxSuccessful()))
+					.onErrorReturn(false).doOnNext(success -> {
+						latencies[n] = System.nanoTime() - requestStart;
+						if (!success) {
+							errors.incrementAndGet();
+						}
+					});
+		}, concurrency).blockLast(TIMEOUT);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.task.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+
+/**
+ * Throughput, latency percentiles and error rate of one load test scenario.
+ */
+@Value
+public class LoadResult {
+
+	String scenario;
+
+	int concurrency;
+
+	int requests;
+
+	int errors;
+
+	double errorRate;
+
+	double throughput;
+
+	double p50Millis;
+
+	double p90Millis;
+
+	double p99Millis;
+
+	double maxMillis;
+
+	/**
+	 * Summarizes a run.
+	 *
+	 * @param scenario     the scenario name
+	 * @param concurrency  the number of requests in flight
+	 * @param latencies    the latency of every request, in nanoseconds
+	 * @param errors       the number of failed or non-2xx requests
+	 * @param elapsedNanos the duration of the run
+	 * @return the result
+	 */
+	public static LoadResult of(final String scenario, final int concurrency, final long[] latencies,
+			final int errors, final long elapsedNanos) {
+
+		long[] sorted = latencies.clone();
+		Arrays.sort(sorted);
+		int requests = sorted.length;
+		return new LoadResult(scenario, concurrency, requests, errors, (double) errors / requests,
+				requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos, millis(sorted, 0.50),
+				millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 1.0));
+	}
+
+	private static double millis(final long[] sorted, final double percentile) {
+		int index = Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1);
+		return sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+}
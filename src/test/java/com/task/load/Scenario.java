@@ -0,0 +1,70 @@
+package com.task.load;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.task.album.Album;
+
+/**
+ * The request mixes of the load test. Each one alternates between the Users
+ * and Albums routes, or between the write methods, by request number.
+ */
+public enum Scenario {
+
+	READ {
+		@Override
+		WebClient.RequestHeadersSpec<?> request(final WebClient client, final int n) {
+			return n % 2 == 0 ? client.get().uri("/albums/{albumId}", albumId(n))
+					: client.get().uri("/users/{userId}", userId(n));
+		}
+	},
+
+	FIND {
+		@Override
+		WebClient.RequestHeadersSpec<?> request(final WebClient client, final int n) {
+			return n % 2 == 0 ? client.get().uri("/albums/find?title={title}&match=prefix", "album title")
+					: client.get().uri("/users/find?name={name}", "Name " + userId(n));
+		}
+	},
+
+	SAVE {
+		@Override
+		WebClient.RequestHeadersSpec<?> request(final WebClient client, final int n) {
+			return n % 2 == 0 ? client.get().uri("/albums/{albumId}/save", albumId(n))
+					: client.get().uri("/users/{userId}/save", userId(n));
+		}
+	},
+
+	WRITE {
+		@Override
+		WebClient.RequestHeadersSpec<?> request(final WebClient client, final int n) {
+			Album album = new Album(userId(n), albumId(n), "load test " + n);
+			switch (n % 3) {
+			case 0:
+				return client.post().uri("/albums/create").contentType(MediaType.APPLICATION_JSON).bodyValue(album);
+			case 1:
+				return client.put().uri("/albums/update").contentType(MediaType.APPLICATION_JSON).bodyValue(album);
+			default:
+				return client.delete().uri("/albums/{albumId}/delete", albumId(n));
+			}
+		}
+	};
+
+	/**
+	 * Builds the n-th request of the scenario.
+	 *
+	 * @param client the client of the application under test
+	 * @param n      the request number
+	 * @return the request
+	 */
+	abstract WebClient.RequestHeadersSpec<?> request(WebClient client, int n);
+
+	private static int albumId(final int n) {
+		return n % 100 + 1;
+	}
+
+	private static int userId(final int n) {
+		return n % 10 + 1;
+	}
+
+}
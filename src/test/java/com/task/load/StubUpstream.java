@@ -0,0 +1,151 @@
+package com.task.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.album.Album;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.NettyOutbound;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * In-process stub of the JSON Placeholder API for the load tests: serves 10
+ * Users and 100 Albums and accepts the writes, answering every request after a
+ * fixed latency. A share of the requests fails with
+ * <code>503 Service Unavailable</code>, and the entity titles are padded to a
+ * payload size, so the upstream behaviour can be varied between runs.
+ */
+public class StubUpstream {
+
+	private static final int USERS = 10;
+
+	private static final int ALBUMS = 100;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Duration latency;
+
+	private final double errorRate;
+
+	private final User[] users;
+
+	private final Album[] albums;
+
+	private LoopResources loops;
+
+	private DisposableServer server;
+
+	/**
+	 * Builds the stub.
+	 *
+	 * @param latency     the time every request waits before it is answered
+	 * @param errorRate   the share of requests answered with an error, from 0 to 1
+	 * @param payloadSize the minimum size in characters of the text fields
+	 */
+	public StubUpstream(final Duration latency, final double errorRate, final int payloadSize) {
+
+		this.latency = latency;
+		this.errorRate = errorRate;
+		this.users = IntStream.rangeClosed(1, USERS)
+				.mapToObj(id -> new User(id, "Name " + id, "user" + id, "user" + id + "@example.com",
+						new Address("Street " + id, "Suite " + id, "City", "00000"), "555-000" + id,
+						"example.com", new Company("Company " + id, pad("Catch phrase " + id, payloadSize), "bs")))
+				.toArray(User[]::new);
+		this.albums = IntStream.rangeClosed(1, ALBUMS)
+				.mapToObj(id -> new Album((id - 1) / (ALBUMS / USERS) + 1, id, pad("album title " + id, payloadSize)))
+				.toArray(Album[]::new);
+	}
+
+	/**
+	 * Starts the stub on a free port.
+	 *
+	 * @return the base URL of the stub
+	 */
+	public String start() {
+
+		// own event loops, since closing an application disposes the global ones
+		loops = LoopResources.create("upstream-stub");
+		server = HttpServer.create().runOn(loops).port(0).route(routes -> routes
+				.get("/users", (request, response) -> answer(response,
+						filter(users, user -> matches(request, "name", user.getName()))))
+				.get("/users/{id}", (request, response) -> answerById(users, User::getId, request, response))
+				.get("/albums", (request, response) -> answer(response,
+						filter(albums, album -> matches(request, "title", album.getTitle()))))
+				.get("/albums/{id}", (request, response) -> answerById(albums, Album::getId, request, response))
+				.post("/{collection}",
+						(request, response) -> echo(request, response.status(HttpStatus.CREATED.value())))
+				.put("/{collection}/{id}", (request, response) -> echo(request, response))
+				.delete("/{collection}/{id}", (request, response) -> send(response, Mono.just("{}"))))
+				.bindNow();
+		return "http://localhost:" + server.port();
+	}
+
+	/**
+	 * Stops the stub.
+	 */
+	public void stop() {
+		if (server != null) {
+			server.disposeNow();
+			loops.disposeLater().block();
+		}
+	}
+
+	private NettyOutbound answer(final HttpServerResponse response, final Object body) {
+		return send(response, Mono.fromCallable(() -> objectMapper.writeValueAsString(body)));
+	}
+
+	private NettyOutbound echo(final HttpServerRequest request, final HttpServerResponse response) {
+		return send(response, request.receive().aggregate().asString().defaultIfEmpty("{}"));
+	}
+
+	private NettyOutbound send(final HttpServerResponse response, final Mono<String> body) {
+
+		Mono<String> delayed = Mono.delay(latency).then(body);
+		if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+			return response.status(HttpStatus.SERVICE_UNAVAILABLE.value()).sendString(delayed.thenReturn(""));
+		}
+		return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).sendString(delayed);
+	}
+
+	private <T> Publisher<Void> answerById(final T[] entities, final Function<T, Integer> idOf,
+			final HttpServerRequest request, final HttpServerResponse response) {
+
+		Integer id = Integer.valueOf(request.param("id"));
+		return Arrays.stream(entities).filter(entity -> id.equals(idOf.apply(entity))).findFirst()
+				.<Publisher<Void>>map(entity -> answer(response, entity)).orElseGet(response::sendNotFound);
+	}
+
+	private static <T> Object[] filter(final T[] entities, final Predicate<T> predicate) {
+		return Arrays.stream(entities).filter(predicate).toArray();
+	}
+
+	private static boolean matches(final HttpServerRequest request, final String param, final String value) {
+		return new QueryStringDecoder(request.uri()).parameters().getOrDefault(param, List.of(value))
+				.contains(value);
+	}
+
+	private static String pad(final String text, final int size) {
+		return text.length() >= size ? text : text + " " + "x".repeat(size - text.length() - 1);
+	}
+
+}
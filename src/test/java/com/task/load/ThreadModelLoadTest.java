@@ -0,0 +1,107 @@
+package com.task.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.ProgrammingTaskApplication;
+import com.task.config.WorkerThreads;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the blocking stack with a platform thread per request and with
+ * virtual threads (<code>threads.virtual</code>) at a concurrency above the
+ * Tomcat thread pool, against an in-process stub of the JSON Placeholder API
+ * with a high latency. The application is started once per thread model with
+ * the upstream connection pool and the bulkheads sized to the concurrency, so
+ * the request threads are the only limit, and the results are logged and
+ * written as JSON in <code>target/load/threads.json</code>. The virtual threads
+ * are only measured when the test runs on Java 21 or later.
+ * <p>
+ * It is skipped by default, run it with
+ * <code>mvn test -Dtest=ThreadModelLoadTest -Dloadtest=true</code> and tune it
+ * with the <code>load.*</code> system properties: <code>concurrency</code>
+ * (1000), <code>requests</code> (10000), <code>warmup</code> (1000),
+ * <code>upstream-latency-ms</code> (200), <code>tomcat-threads</code> (200) and
+ * <code>scenario</code> (WRITE, which calls the API on every request).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ThreadModelLoadTest {
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+
+	private static final int REQUESTS = Integer.getInteger("load.requests", 10000);
+
+	private static final int WARMUP = Integer.getInteger("load.warmup", 1000);
+
+	private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(Long.getLong("load.upstream-latency-ms", 200));
+
+	private static final int TOMCAT_THREADS = Integer.getInteger("load.tomcat-threads", 200);
+
+	private static final Scenario SCENARIO = Scenario
+			.valueOf(System.getProperty("load.scenario", "WRITE").toUpperCase());
+
+	private static final Path RESULTS = Paths.get(System.getProperty("load.results", "target/load"));
+
+	@TempDir
+	Path storage;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void compare() throws IOException {
+
+		StubUpstream upstream = new StubUpstream(UPSTREAM_LATENCY, 0, 0);
+		String upstreamUrl = upstream.start();
+		try {
+			Map<String, LoadResult> results = new LinkedHashMap<>();
+			results.put("platform", run("platform", false, upstreamUrl));
+			if (WorkerThreads.isVirtualSupported()) {
+				results.put("virtual", run("virtual", true, upstreamUrl));
+			} else {
+				log.warn("Virtual threads need Java 21 or later, only the platform threads are measured");
+			}
+
+			results.values().forEach(result -> log.info(
+					"{}: {} requests, {} in flight, {} req/s, p50 {} ms, p99 {} ms, max {} ms, error rate {}",
+					result.getScenario(), result.getRequests(), result.getConcurrency(),
+					Math.round(result.getThroughput()), result.getP50Millis(), result.getP99Millis(),
+					result.getMaxMillis(), result.getErrorRate()));
+			Files.createDirectories(RESULTS);
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS.resolve("threads.json").toFile(),
+					results);
+		} finally {
+			upstream.stop();
+		}
+	}
+
+	private LoadResult run(final String name, final boolean virtual, final String upstreamUrl) {
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProgrammingTaskApplication.class)
+				.run("--server.port=0", "--threads.virtual=" + virtual,
+						"--server.tomcat.threads.max=" + TOMCAT_THREADS, "--upstream.http.base-url=" + upstreamUrl,
+						"--upstream.http.max-total=" + CONCURRENCY, "--upstream.http.max-per-route=" + CONCURRENCY,
+						"--resilience4j.bulkhead.instances.users.max-concurrent-calls=" + CONCURRENCY,
+						"--resilience4j.bulkhead.instances.albums.max-concurrent-calls=" + CONCURRENCY,
+						"--storage.root=" + storage.resolve(name), "--storage.local-reads=false")) {
+
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			return LoadDriver.run(name, port, SCENARIO, CONCURRENCY, WARMUP, REQUESTS);
+		}
+	}
+
+}
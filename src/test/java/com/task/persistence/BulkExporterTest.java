@@ -0,0 +1,63 @@
+package com.task.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.task.config.PersistenceProperties;
+import com.task.exception.SaveFileException;
+
+public class BulkExporterTest {
+
+	private final BulkExporter bulkExporter = new BulkExporter(new PersistenceProperties());
+
+	@AfterEach
+	public void shutdown() throws InterruptedException {
+		bulkExporter.shutdown();
+	}
+
+	private ExportJob awaitCompletion(final ExportJob job) throws InterruptedException {
+		while (job.getStatus() == ExportJob.Status.RUNNING) {
+			Thread.sleep(5);
+		}
+		return job;
+	}
+
+	@Test
+	public void testStart_EveryEntityIsWritten() throws Exception {
+		Set<Integer> written = ConcurrentHashMap.newKeySet();
+
+		ExportJob job = awaitCompletion(bulkExporter.start("numbers", List.of(1, 2, 3, 4, 5), written::add));
+
+		assertEquals(Set.of(1, 2, 3, 4, 5), written);
+		assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+		assertEquals(5, job.getWritten());
+		assertEquals(job, bulkExporter.getJob(job.getId()).get());
+	}
+
+	@Test
+	public void testStart_WriteFails_FailureIsCounted() throws Exception {
+		ExportJob job = awaitCompletion(bulkExporter.start("numbers", List.of(1, 2, 3), number -> {
+			if (number == 2) {
+				throw new SaveFileException("Error saving 2");
+			}
+		}));
+
+		assertEquals(ExportJob.Status.COMPLETED_WITH_ERRORS, job.getStatus());
+		assertEquals(2, job.getWritten());
+		assertEquals(1, job.getFailed());
+		assertEquals("Error saving 2", job.getLastError());
+	}
+
+	@Test
+	public void testStart_NoEntities_JobIsCompleted() {
+		assertEquals(ExportJob.Status.COMPLETED, bulkExporter.start("numbers", List.<Integer>of(), number -> {
+		}).getStatus());
+	}
+
+}
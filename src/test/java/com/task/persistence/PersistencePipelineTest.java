@@ -0,0 +1,174 @@
+package com.task.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.task.config.PersistenceProperties;
+import com.task.config.StorageProperties;
+import com.task.exception.SaveFileException;
+import com.task.storage.EntityStore;
+import com.task.storage.FileSystemEntityStore;
+import com.task.storage.StoredFile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PersistencePipelineTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@TempDir
+	Path root;
+
+	private PersistencePipeline persistencePipeline;
+
+	private PersistencePipeline buildPipeline(final int queueCapacity, final int workers) {
+		return buildPipeline(queueCapacity, workers, mock(EntityStore.class));
+	}
+
+	private PersistencePipeline buildPipeline(final int queueCapacity, final int workers,
+			final EntityStore entityStore) {
+		PersistenceProperties properties = new PersistenceProperties();
+		properties.setQueueCapacity(queueCapacity);
+		properties.setWorkers(workers);
+		properties.setOfferTimeout(Duration.ofMillis(10));
+		persistencePipeline = new PersistencePipeline(properties, entityStore, meterRegistry);
+		return persistencePipeline;
+	}
+
+	@AfterEach
+	public void shutdown() throws InterruptedException {
+		persistencePipeline.shutdown();
+	}
+
+	@Test
+	public void testSubmit_FilesAreWritten() throws Exception {
+		CountDownLatch written = new CountDownLatch(1);
+		PersistencePipeline pipeline = buildPipeline(10, 1);
+
+		SaveJob<String> job = pipeline.submit("value", "value", written::countDown);
+
+		assertEquals("value", pipeline.await(job));
+		assertEquals(0, written.getCount());
+		assertEquals(SaveJob.Status.WRITTEN, pipeline.getJob(job.getId()).get().getStatus());
+		assertEquals(1, meterRegistry.get("persistence.write").timer().count());
+	}
+
+	@Test
+	public void testSubmit_WriteFails_FailureIsReported() throws Exception {
+		PersistencePipeline pipeline = buildPipeline(10, 1);
+
+		SaveJob<String> job = pipeline.submit("value", "value", () -> {
+			throw new SaveFileException("Error saving value");
+		});
+
+		assertThrows(SaveFileException.class, () -> pipeline.await(job));
+		assertEquals(SaveJob.Status.FAILED, job.getStatus());
+		assertEquals("Error saving value", job.getError());
+		assertEquals(1.0, meterRegistry.get("persistence.write.failures").counter().count());
+	}
+
+	@Test
+	public void testSubmit_QueueIsFull_SaveIsRejected() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		PersistencePipeline pipeline = buildPipeline(1, 1);
+
+		SaveJob<String> blocking = pipeline.submit("blocking", "blocking", () -> await(release));
+		while (meterRegistry.get("persistence.queue.depth").gauge().value() > 0) {
+			Thread.sleep(5);
+		}
+		pipeline.submit("queued", "queued", () -> {
+		});
+
+		try {
+			assertThrows(SaveFileException.class, () -> pipeline.submit("rejected", "rejected", () -> {
+			}));
+		} finally {
+			release.countDown();
+		}
+		assertEquals("blocking", pipeline.await(blocking));
+		assertTrue(pipeline.getJob(blocking.getId()).isPresent());
+	}
+
+	@Test
+	public void testSubmit_Fsync_BatchIsCommittedTogether() throws Exception {
+		StorageProperties storage = new StorageProperties();
+		storage.setRoot(root);
+		storage.setFsync(true);
+		EntityStore entityStore = new FileSystemEntityStore(storage, meterRegistry);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean visibleBeforeCommit = new AtomicBoolean(true);
+		PersistencePipeline pipeline = buildPipeline(10, 1, entityStore);
+
+		SaveJob<String> blocking = pipeline.submit("blocking", "blocking", () -> await(release));
+		while (meterRegistry.get("persistence.queue.depth").gauge().value() > 0) {
+			Thread.sleep(5);
+		}
+		SaveJob<String> first = pipeline.submit("first", "first", () -> write(entityStore, 1));
+		SaveJob<String> second = pipeline.submit("second", "second",
+				() -> visibleBeforeCommit.set(find(entityStore, 1).isPresent()));
+		release.countDown();
+
+		assertEquals("blocking", pipeline.await(blocking));
+		assertEquals("first", pipeline.await(first));
+		assertEquals("second", pipeline.await(second));
+		assertFalse(visibleBeforeCommit.get());
+		assertTrue(find(entityStore, 1).isPresent());
+		assertEquals(2, meterRegistry.get("persistence.commit").timer().count());
+	}
+
+	@Test
+	public void testSubmit_CommitFails_BatchFails() throws Exception {
+		EntityStore entityStore = mock(EntityStore.class);
+		doThrow(new IOException("No space left on device")).when(entityStore).commit();
+		PersistencePipeline pipeline = buildPipeline(10, 1, entityStore);
+
+		SaveJob<String> job = pipeline.submit("value", "value", () -> {
+		});
+
+		assertThrows(SaveFileException.class, () -> pipeline.await(job));
+		assertEquals(SaveJob.Status.FAILED, job.getStatus());
+		assertEquals(1.0, meterRegistry.get("persistence.write.failures").counter().count());
+	}
+
+	private void write(final EntityStore entityStore, final int id) {
+		try {
+			entityStore.write("albums", id, "json", "{}".getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Optional<StoredFile> find(final EntityStore entityStore, final int id) {
+		try {
+			return entityStore.find("albums", id, "json");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
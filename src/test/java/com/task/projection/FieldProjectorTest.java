@@ -0,0 +1,60 @@
+package com.task.projection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.album.Album;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+
+public class FieldProjectorTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final FieldProjector fieldProjector = new FieldProjector(objectMapper);
+
+	private User buildUser(Integer id) {
+		Address expectedAddress = new Address("street", "suite", "city", "zipcode");
+		Company expectedCompany = new Company("companyName", "catchPhrase", "bs");
+		return new User(id, "name", "username", "email", expectedAddress, "phone", "website", expectedCompany);
+	}
+
+	@Test
+	public void testWrite_KeepsOnlyTheRequestedFields() throws Exception {
+		byte[] json = fieldProjector.write(List.of(buildUser(1), buildUser(2)), Set.of("id", "name"));
+
+		assertEquals("[{\"id\":1,\"name\":\"name\"},{\"id\":2,\"name\":\"name\"}]",
+				new String(json, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWrite_NestedObjectsAreWrittenWhole() throws Exception {
+		byte[] json = fieldProjector.write(buildUser(1), Set.of("company"));
+
+		assertEquals("{\"company\":{\"name\":\"companyName\",\"catchPhrase\":\"catchPhrase\",\"bs\":\"bs\"}}",
+				new String(json, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWrite_Album_IsSuccessfull() throws Exception {
+		byte[] json = fieldProjector.write(new Album(1, 2, "title"), Set.of("title"));
+
+		assertEquals("{\"title\":\"title\"}", new String(json, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWrite_SharedMapperIsNotFiltered() throws Exception {
+		fieldProjector.write(new Album(1, 2, "title"), Set.of("title"));
+
+		assertEquals("{\"userId\":1,\"id\":2,\"title\":\"title\"}",
+				objectMapper.writeValueAsString(new Album(1, 2, "title")));
+	}
+
+}
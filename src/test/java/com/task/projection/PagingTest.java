@@ -0,0 +1,39 @@
+package com.task.projection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class PagingTest {
+
+	private final List<Integer> list = List.of(1, 2, 3, 4, 5);
+
+	@Test
+	public void testSlice_NoPaging_ReturnsTheWholeList() {
+		assertEquals(list, Paging.slice(list, null, null));
+	}
+
+	@Test
+	public void testSlice_IsSuccessfull() {
+		assertEquals(List.of(3, 4), Paging.slice(list, 1, 2));
+		assertEquals(List.of(5), Paging.slice(list, 2, 2));
+		assertEquals(List.of(), Paging.slice(list, 3, 2));
+	}
+
+	@Test
+	public void testSlice_InvalidSize_ExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> Paging.slice(list, 0, 0));
+	}
+
+	@Test
+	public void testSliceFlux_IsSuccessfull() {
+		StepVerifier.create(Paging.slice(Flux.fromIterable(list), 1, 2)).expectNext(3, 4).verifyComplete();
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.task.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.config.SearchProperties;
+import com.task.snapshot.EntitySnapshots;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+import com.task.user.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class EntitySearchTest {
+
+	@InjectMocks
+	private EntitySearch entitySearch;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private AlbumService albumService;
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
+	@Spy
+	private SearchProperties properties = new SearchProperties();
+
+	private User buildUser(Integer id, String name) {
+		return new User(id, name, "username", "email", new Address("street", "suite", "city", "zipcode"), "phone",
+				"website", new Company("companyName", "catchPhrase", "bs"));
+	}
+
+	@Test
+	public void testSearchUsers_NoWrite_IndexIsBuiltOnce() throws Exception {
+		User leanne = buildUser(1, "Leanne Graham");
+		Mockito.when(userService.getUsers()).thenReturn(List.of(leanne));
+
+		entitySearch.searchUsers("name", "Leanne Graham", null, null, null);
+		SearchResult<User> result = entitySearch.searchUsers("name", "Leanne Graham", null, null, null);
+
+		assertEquals(new SearchResult<>(List.of(leanne), 1), result);
+		Mockito.verify(userService, Mockito.times(1)).getUsers();
+	}
+
+	@Test
+	public void testSearchUsers_AfterWrite_IndexIsRebuilt() throws Exception {
+		User leanne = buildUser(1, "Leanne Graham");
+		User renamed = buildUser(1, "Ervin Howell");
+		Mockito.when(userService.getUsers()).thenReturn(List.of(leanne)).thenReturn(List.of(renamed));
+
+		entitySearch.searchUsers("name", "Leanne Graham", null, null, null);
+		entitySnapshots.getUsers().invalidate();
+
+		assertEquals(new SearchResult<>(List.of(), 0),
+				entitySearch.searchUsers("name", "Leanne Graham", null, null, null));
+		assertEquals(new SearchResult<>(List.of(renamed), 1),
+				entitySearch.searchUsers("name", "Ervin Howell", null, null, null));
+	}
+
+	@Test
+	public void testSearchAlbums_AfterDelete_DeletedAlbumIsNotFound() throws Exception {
+		Album album = new Album(1, 1, "quidem molestiae enim");
+		Mockito.when(albumService.getAlbums()).thenReturn(List.of(album)).thenReturn(List.of());
+
+		entitySearch.searchAlbums("quidem molestiae enim", null, null, null);
+		entitySnapshots.getAlbums().invalidate();
+
+		assertEquals(new SearchResult<>(List.of(), 0),
+				entitySearch.searchAlbums("quidem molestiae enim", null, null, null));
+	}
+
+	@Test
+	public void testRefresh_WriteWhileBuilding_IndexStaysStale() throws Exception {
+		User leanne = buildUser(1, "Leanne Graham");
+		User ervin = buildUser(2, "Ervin Howell");
+		Mockito.when(userService.getUsers()).thenAnswer(invocation -> {
+			entitySnapshots.getUsers().invalidate();
+			return List.of(leanne);
+		}).thenReturn(List.of(leanne, ervin));
+
+		entitySearch.refresh();
+		SearchResult<User> result = entitySearch.searchUsers("name", "Ervin Howell", null, null, null);
+
+		assertEquals(new SearchResult<>(List.of(ervin), 1), result);
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.task.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+
+public class SearchIndexTest {
+
+	private static final Map<String, Function<User, String>> FIELDS = Map.of("name", User::getName, "username",
+			User::getUsername, "email", User::getEmail);
+
+	private final User leanne = buildUser(1, "Leanne Graham", "Bret", "Sincere@april.biz");
+
+	private final User ervin = buildUser(2, "Ervin Howell", "Antonette", "Shanna@melissa.tv");
+
+	private final User clementine = buildUser(3, "Clementine Bauch", "Samantha", "Nathan@yesenia.net");
+
+	private final User graham = buildUser(4, "Graham Leanne", "Leopoldo_Corkery", "Lucio_Hettinger@annie.ca");
+
+	private final SearchIndex<User> index = new SearchIndex<>(List.of(leanne, ervin, clementine, graham), FIELDS);
+
+	private User buildUser(Integer id, String name, String username, String email) {
+		Address expectedAddress = new Address("street", "suite", "city", "zipcode");
+		Company expectedCompany = new Company("companyName", "catchPhrase", "bs");
+		return new User(id, name, username, email, expectedAddress, "phone", "website", expectedCompany);
+	}
+
+	@Test
+	public void testSearch_Exact_IgnoresCase() {
+		SearchResult<User> result = index.search("name", "leanne graham", MatchMode.EXACT, 0, 10);
+
+		assertEquals(new SearchResult<>(List.of(leanne), 1), result);
+	}
+
+	@Test
+	public void testSearch_Prefix_IsSuccessfull() {
+		SearchResult<User> result = index.search("username", "Le", MatchMode.PREFIX, 0, 10);
+
+		assertEquals(new SearchResult<>(List.of(graham), 1), result);
+	}
+
+	@Test
+	public void testSearch_Token_MatchesEveryWordInAnyOrder() {
+		SearchResult<User> result = index.search("name", "graham LEANNE", MatchMode.TOKEN, 0, 10);
+
+		assertEquals(new SearchResult<>(List.of(leanne, graham), 2), result);
+	}
+
+	@Test
+	public void testSearch_Substring_AnyField_IsSuccessfull() {
+		SearchResult<User> result = index.search(null, "an", MatchMode.SUBSTRING, 0, 10);
+
+		assertEquals(4, result.getTotal());
+		assertEquals(List.of(leanne, ervin, clementine, graham), result.getItems());
+	}
+
+	@Test
+	public void testSearch_Paginated_ReturnsTheRequestedPage() {
+		SearchResult<User> result = index.search(null, "an", MatchMode.SUBSTRING, 1, 2);
+
+		assertEquals(new SearchResult<>(List.of(ervin, clementine), 4), result);
+	}
+
+	@Test
+	public void testSearch_UnknownField_ExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> index.search("phone", "1", MatchMode.EXACT, 0, 10));
+	}
+
+}
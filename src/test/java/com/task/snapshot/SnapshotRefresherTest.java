@@ -0,0 +1,68 @@
+package com.task.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.user.Address;
+import com.task.user.Company;
+import com.task.user.User;
+import com.task.user.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class SnapshotRefresherTest {
+
+	@InjectMocks
+	private SnapshotRefresher snapshotRefresher;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private AlbumService albumService;
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
+	private final User user = new User(1, "name", "username", "email",
+			new Address("street", "suite", "city", "zipcode"), "phone", "website",
+			new Company("companyName", "catchPhrase", "bs"));
+
+	@Test
+	public void testRun_BothSnapshotsAreLoaded() throws Exception {
+		Album album = new Album(1, 1, "title 1");
+		Mockito.when(userService.fetchUsers()).thenReturn(List.of(user));
+		Mockito.when(albumService.fetchAlbums()).thenReturn(List.of(album));
+
+		snapshotRefresher.run(null);
+
+		assertEquals(Optional.of(user), entitySnapshots.getUsers().find(1));
+		assertEquals(Optional.of(album), entitySnapshots.getAlbums().find(1));
+	}
+
+	@Test
+	public void testRefresh_FetchFails_PreviousSnapshotIsKept() throws Exception {
+		Album album = new Album(1, 1, "title 1");
+		Mockito.when(userService.fetchUsers()).thenReturn(List.of(user));
+		Mockito.when(albumService.fetchAlbums()).thenReturn(List.of(album))
+				.thenThrow(new ResourceAccessException("Connection refused"));
+
+		snapshotRefresher.refresh();
+		snapshotRefresher.refresh();
+
+		assertEquals(Optional.of(album), entitySnapshots.getAlbums().find(1));
+	}
+
+}
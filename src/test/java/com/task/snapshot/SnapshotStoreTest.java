@@ -0,0 +1,63 @@
+package com.task.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.task.album.Album;
+
+public class SnapshotStoreTest {
+
+	private final SnapshotStore<Album> store = new SnapshotStore<>();
+
+	private Snapshot<Album> snapshot(final Album... albums) {
+		return new Snapshot<>(List.of(albums), Album::getId, Instant.now());
+	}
+
+	@Test
+	public void testPublish_EntitiesAreFoundById() {
+		Album album = new Album(1, 2, "title 2");
+
+		assertTrue(store.publish(snapshot(new Album(1, 1, "title 1"), album), store.version()));
+
+		assertEquals(Optional.of(album), store.find(2));
+		assertEquals(Optional.empty(), store.find(3));
+		assertEquals(2, store.current().get().getAll().size());
+	}
+
+	@Test
+	public void testPublish_NewSnapshotReplacesTheOldOne() {
+		store.publish(snapshot(new Album(1, 1, "old")), store.version());
+
+		store.publish(snapshot(new Album(1, 1, "new")), store.version());
+
+		assertEquals(Optional.of(new Album(1, 1, "new")), store.find(1));
+	}
+
+	@Test
+	public void testInvalidate_SnapshotIsDropped() {
+		store.publish(snapshot(new Album(1, 1, "title 1")), store.version());
+
+		store.invalidate();
+
+		assertTrue(store.current().isEmpty());
+		assertEquals(Optional.empty(), store.find(1));
+	}
+
+	@Test
+	public void testPublish_WrittenWhileLoading_SnapshotIsDiscarded() {
+		long version = store.version();
+		store.invalidate();
+
+		assertFalse(store.publish(snapshot(new Album(1, 1, "stale")), version));
+
+		assertTrue(store.current().isEmpty());
+	}
+
+}
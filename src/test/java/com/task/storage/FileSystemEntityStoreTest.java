@@ -0,0 +1,83 @@
+package com.task.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.task.config.StorageProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FileSystemEntityStoreTest {
+
+	@TempDir
+	Path root;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private FileSystemEntityStore buildStore(final int shardDepth) {
+		StorageProperties properties = new StorageProperties();
+		properties.setRoot(root);
+		properties.setShardDepth(shardDepth);
+		return new FileSystemEntityStore(properties, meterRegistry);
+	}
+
+	@Test
+	public void testResolve_FilesAreSharded() {
+		FileSystemEntityStore store = buildStore(2);
+
+		Path path = store.resolve("users", 1, "json");
+
+		assertEquals(root.resolve("users").resolve("json"), path.getParent().getParent().getParent());
+		assertEquals("1.json", path.getFileName().toString());
+		assertNotEquals(path.getParent(), store.resolve("users", 2, "json").getParent());
+	}
+
+	@Test
+	public void testResolve_NoShards_FilesAreFlat() {
+		assertEquals(root.resolve("albums/xml/11.xml"), buildStore(0).resolve("albums", 11, "xml"));
+	}
+
+	@Test
+	public void testWrite_FileIsReplacedWithoutTemporaryFiles() throws Exception {
+		FileSystemEntityStore store = buildStore(2);
+
+		store.write("users", 1, "json", "first".getBytes(StandardCharsets.UTF_8));
+		Path path = store.write("users", 1, "json", "second".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals("second", Files.readString(path));
+		try (var files = Files.list(path.getParent())) {
+			assertEquals(1, files.count());
+		}
+		assertEquals(2, meterRegistry.get("storage.writes").tags("collection", "users", "format", "json").timer()
+				.count());
+	}
+
+	@Test
+	public void testWrite_Fsync_FileIsWritten() throws Exception {
+		StorageProperties properties = new StorageProperties();
+		properties.setRoot(root);
+		properties.setFsync(true);
+		FileSystemEntityStore store = new FileSystemEntityStore(properties, meterRegistry);
+
+		Path path = store.write("albums", 1, "json", "content".getBytes(StandardCharsets.UTF_8));
+
+		assertEquals("content", Files.readString(path));
+	}
+
+	@Test
+	public void testWrite_NoId_ExceptionIsThrown() {
+		FileSystemEntityStore store = buildStore(2);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> store.write("albums", null, "json", "content".getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
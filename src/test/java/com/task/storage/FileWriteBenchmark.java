@@ -0,0 +1,120 @@
+package com.task.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.task.Benchmarks;
+import com.task.config.StorageProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * JMH comparison of the ways to write an entity file: <code>Files.writeString</code>,
+ * a BufferedWriter, a FileChannel, and the FileSystemEntityStore write (temporary
+ * file and atomic rename, without fsync). It is skipped by default, run it with
+ * <code>mvn test -Pbenchmark -Dtest=FileWriteBenchmark</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileWriteBenchmark {
+
+	@Param({ "512", "65536" })
+	private int size;
+
+	private Path root;
+
+	private Path file;
+
+	private String content;
+
+	private byte[] bytes;
+
+	private FileSystemEntityStore entityStore;
+
+	@Setup
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory("file-write-benchmark");
+		file = root.resolve("1.json");
+		content = "x".repeat(size);
+		bytes = content.getBytes(StandardCharsets.UTF_8);
+
+		StorageProperties properties = new StorageProperties();
+		properties.setRoot(root);
+		properties.setFsync(false);
+		entityStore = new FileSystemEntityStore(properties, new SimpleMeterRegistry());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(root)) {
+			for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	@Benchmark
+	public Path filesWriteString() throws IOException {
+		return Files.writeString(file, content);
+	}
+
+	@Benchmark
+	public Path bufferedWriter() throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(content);
+		}
+		return file;
+	}
+
+	@Benchmark
+	public Path fileChannel() throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+		return file;
+	}
+
+	@Benchmark
+	public Path entityStoreWrite() throws IOException {
+		return entityStore.write("users", 1, "json", bytes);
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	public void runBenchmark() throws Exception {
+		Benchmarks.run(FileWriteBenchmark.class);
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.task.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.task.config.StorageProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LocalEntityReaderTest {
+
+	@TempDir
+	Path root;
+
+	private final StorageProperties properties = new StorageProperties();
+
+	private final LocalEntityReader localEntityReader = new LocalEntityReader();
+
+	private EntityStore entityStore;
+
+	@BeforeEach
+	public void setUp() {
+		properties.setRoot(root);
+		properties.setMaxAge(Duration.ofMinutes(5));
+		properties.setMaxStale(Duration.ofDays(1));
+		entityStore = new FileSystemEntityStore(properties, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(localEntityReader, "entityStore", entityStore);
+		ReflectionTestUtils.setField(localEntityReader, "properties", properties);
+		localEntityReader.init();
+	}
+
+	private Path store(final Integer id, final Duration age) throws Exception {
+		Path path = entityStore.write("albums", id, "json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+		return path;
+	}
+
+	@Test
+	public void testReadFresh_RecentFile_IsServed() throws Exception {
+		store(1, Duration.ofMinutes(1));
+
+		ResponseEntity<Resource> response = localEntityReader.readFresh("albums", 1).get();
+
+		assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+		assertEquals("{\"id\":1}", new String(response.getBody().getInputStream().readAllBytes(),
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testReadFresh_OldFile_IsOnlyServedAsStale() throws Exception {
+		store(1, Duration.ofHours(1));
+
+		assertFalse(localEntityReader.readFresh("albums", 1).isPresent());
+		assertTrue(localEntityReader.readStale("albums", 1).isPresent());
+	}
+
+	@Test
+	public void testReadFresh_LocalReadsDisabled_NothingIsServed() throws Exception {
+		store(1, Duration.ofMinutes(1));
+		properties.setLocalReads(false);
+
+		assertFalse(localEntityReader.readFresh("albums", 1).isPresent());
+	}
+
+	@Test
+	public void testInvalidate_FileIsKeptButNotServed() throws Exception {
+		Path path = store(1, Duration.ofMinutes(1));
+
+		localEntityReader.invalidate("albums", 1);
+
+		assertFalse(localEntityReader.readFresh("albums", 1).isPresent());
+		assertFalse(localEntityReader.readStale("albums", 1).isPresent());
+		assertTrue(Files.exists(path));
+	}
+
+	@Test
+	public void testInvalidate_SavedAgain_IsServed() throws Exception {
+		store(1, Duration.ofMinutes(1));
+		localEntityReader.invalidate("albums", 1);
+
+		Path path = store(1, Duration.ZERO);
+		Files.setLastModifiedTime(path, FileTime.from(Instant.now().plusSeconds(1)));
+
+		assertTrue(localEntityReader.readFresh("albums", 1).isPresent());
+	}
+
+	@Test
+	public void testReadFresh_FileRemoved_NothingIsServed() throws Exception {
+		store(1, Duration.ofMinutes(1));
+		entityStore.delete("albums", 1, "json");
+
+		assertFalse(localEntityReader.readFresh("albums", 1).isPresent());
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.task.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.task.persistence.FileWrite;
+
+import brave.ScopedSpan;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+public class PhaseTracerTest {
+
+	private final List<MutableSpan> spans = new CopyOnWriteArrayList<>();
+
+	private final Tracing tracing = Tracing.newBuilder().addSpanHandler(new SpanHandler() {
+		@Override
+		public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+			spans.add(span);
+			return true;
+		}
+	}).build();
+
+	private final PhaseTracer phaseTracer = new PhaseTracer(tracing.tracer());
+
+	@AfterEach
+	public void tearDown() {
+		tracing.close();
+	}
+
+	@Test
+	public void testTrace_PhaseIsChildOfCurrentSpan() {
+		ScopedSpan request = tracing.tracer().startScopedSpan("request");
+		String result;
+		try {
+			result = phaseTracer.trace("album.json.serialize", () -> "{}");
+		} finally {
+			request.finish();
+		}
+
+		assertEquals("{}", result);
+		assertEquals("album.json.serialize", spans.get(0).name());
+		assertEquals(request.context().spanIdString(), spans.get(0).parentId());
+	}
+
+	@Test
+	public void testTrace_PhaseFails_ErrorIsRecorded() {
+		assertThrows(IOException.class, () -> phaseTracer.trace("album.json.write", () -> {
+			throw new IOException("No space left on device");
+		}));
+
+		assertNotNull(spans.get(0).error());
+	}
+
+	@Test
+	public void testInCurrentTrace_WriteOnAnotherThread_IsChildOfQueueingSpan() throws Exception {
+		ScopedSpan request = tracing.tracer().startScopedSpan("request");
+		FileWrite write;
+		try {
+			write = phaseTracer.inCurrentTrace("album.save", () -> phaseTracer.trace("album.xml.write", () -> null));
+		} finally {
+			request.finish();
+		}
+
+		Thread worker = new Thread(() -> {
+			try {
+				write.write();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		worker.start();
+		worker.join();
+
+		MutableSpan xmlWrite = spans.get(1);
+		MutableSpan save = spans.get(2);
+		assertEquals("album.xml.write", xmlWrite.name());
+		assertEquals(save.id(), xmlWrite.parentId());
+		assertEquals("album.save", save.name());
+		assertEquals(request.context().spanIdString(), save.parentId());
+		assertEquals(request.context().traceIdString(), save.traceId());
+	}
+
+}
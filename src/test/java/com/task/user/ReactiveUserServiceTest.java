@@ -0,0 +1,179 @@
+package com.task.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.client.Hedger;
+import com.task.client.UpstreamGuard;
+import com.task.config.HedgingProperties;
+import com.task.exception.ApiResponseNotValidException;
+import com.task.exception.ErrorMetrics;
+import com.task.snapshot.EntitySnapshots;
+import com.task.snapshot.Snapshot;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUserServiceTest {
+
+	private static final String API_URL = "https://jsonplaceholder.typicode.com";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@InjectMocks
+	private ReactiveUserService reactiveUserService;
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
+	@Mock
+	private UserService userService;
+
+	private final Hedger hedger = new Hedger(new HedgingProperties(), new SimpleMeterRegistry());
+
+	@Spy
+	private UpstreamGuard upstreamGuard = new UpstreamGuard(CircuitBreakerRegistry.ofDefaults(),
+			BulkheadRegistry.ofDefaults(), RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), hedger,
+			new SimpleMeterRegistry());
+
+	@Spy
+	private ErrorMetrics errorMetrics = new ErrorMetrics(new SimpleMeterRegistry());
+
+	private ClientRequest lastRequest;
+
+	private User buildUser(Integer id) {
+		Address expectedAddress = new Address("street", "suite", "city", "zipcode");
+		Company expectedCompany = new Company("companyName", "catchPhrase", "bs");
+		return new User(id, "name", "username", "email", expectedAddress, "phone", "website", expectedCompany);
+	}
+
+	private void respondWith(final Object body) throws Exception {
+		String json = body == null ? "" : objectMapper.writeValueAsString(body);
+		WebClient webClient = WebClient.builder().baseUrl(API_URL).exchangeFunction(request -> {
+			lastRequest = request;
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(json).build());
+		}).build();
+		ReflectionTestUtils.setField(reactiveUserService, "upstreamWebClient", webClient);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		hedger.shutdown();
+	}
+
+	@Test
+	public void testGetUsers_IsSuccessfull() throws Exception {
+		User[] userArray = { buildUser(1), buildUser(2), buildUser(3) };
+		respondWith(userArray);
+
+		StepVerifier.create(reactiveUserService.getUsers()).expectNext(userArray).verifyComplete();
+		assertEquals(URI.create(API_URL + "/users"), lastRequest.url());
+	}
+
+	@Test
+	public void testGetUserById_IsSuccessfull() throws Exception {
+		User expectedUser = buildUser(1);
+		respondWith(expectedUser);
+
+		StepVerifier.create(reactiveUserService.getUserById(1)).expectNext(expectedUser).verifyComplete();
+		assertEquals(URI.create(API_URL + "/users/1"), lastRequest.url());
+	}
+
+	@Test
+	public void testGetUserById_BodyIsEmpty_ErrorIsEmitted() throws Exception {
+		respondWith(null);
+
+		StepVerifier.create(reactiveUserService.getUserById(1)).expectError(ApiResponseNotValidException.class)
+				.verify();
+	}
+
+	@Test
+	public void testGetUsersByName_IsSuccessfull() throws Exception {
+		User[] userArray = { buildUser(1) };
+		respondWith(userArray);
+
+		StepVerifier.create(reactiveUserService.getUsersByName("name")).expectNext(userArray).verifyComplete();
+		assertEquals(URI.create(API_URL + "/users?name=name"), lastRequest.url());
+	}
+
+	@Test
+	public void testCreateUser_IsSuccessfull() throws Exception {
+		User expectedUser = buildUser(1);
+		respondWith(expectedUser);
+
+		StepVerifier.create(reactiveUserService.createUser(expectedUser)).expectNext(expectedUser).verifyComplete();
+		assertEquals(HttpMethod.POST, lastRequest.method());
+		Mockito.verify(userService).invalidateUsers();
+	}
+
+	@Test
+	public void testUpdateUser_IsSuccessfull() throws Exception {
+		respondWith(buildUser(1));
+
+		StepVerifier.create(reactiveUserService.updateUser(buildUser(1))).verifyComplete();
+		assertEquals(HttpMethod.PUT, lastRequest.method());
+		assertEquals(URI.create(API_URL + "/users/1"), lastRequest.url());
+		Mockito.verify(userService).invalidateUser(1);
+	}
+
+	@Test
+	public void testDeleteUserById_IsSuccessfull() throws Exception {
+		respondWith(null);
+
+		StepVerifier.create(reactiveUserService.deleteUserById(1)).verifyComplete();
+		assertEquals(HttpMethod.DELETE, lastRequest.method());
+		assertEquals(URI.create(API_URL + "/users/1"), lastRequest.url());
+		Mockito.verify(userService).invalidateUser(1);
+	}
+
+	@Test
+	public void testGetUserById_Snapshotted_ApiIsNotCalled() throws Exception {
+		User expectedUser = buildUser(1);
+		entitySnapshots.getUsers().publish(new Snapshot<>(List.of(expectedUser), User::getId, Instant.now()), 0);
+		respondWith(buildUser(2));
+
+		StepVerifier.create(reactiveUserService.getUserById(1)).expectNext(expectedUser).verifyComplete();
+		StepVerifier.create(reactiveUserService.getUsers()).expectNext(expectedUser).verifyComplete();
+		assertNull(lastRequest);
+	}
+
+	@Test
+	public void testGetUserById_NotSnapshotted_ApiIsCalled() throws Exception {
+		User expectedUser = buildUser(2);
+		entitySnapshots.getUsers().publish(new Snapshot<>(List.of(buildUser(1)), User::getId, Instant.now()), 0);
+		respondWith(expectedUser);
+
+		StepVerifier.create(reactiveUserService.getUserById(2)).expectNext(expectedUser).verifyComplete();
+		assertEquals(URI.create(API_URL + "/users/2"), lastRequest.url());
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.task.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.task.album.Album;
+import com.task.album.AlbumService;
+import com.task.exception.ApiResponseNotValidException;
+
+@ExtendWith(MockitoExtension.class)
+public class UserAlbumsServiceTest {
+
+	@InjectMocks
+	private UserAlbumsService userAlbumsService;
+
+	@Mock
+	private UserService userService;
+
+	@Mock
+	private AlbumService albumService;
+
+	private final ExecutorService joinExecutor = Executors.newSingleThreadExecutor();
+
+	@BeforeEach
+	public void setUp() {
+		ReflectionTestUtils.setField(userAlbumsService, "joinExecutor", joinExecutor);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		joinExecutor.shutdownNow();
+	}
+
+	private User buildUser(Integer id) {
+		Address expectedAddress = new Address("street", "suite", "city", "zipcode");
+		Company expectedCompany = new Company("companyName", "catchPhrase", "bs");
+		return new User(id, "name", "username", "email", expectedAddress, "phone", "website", expectedCompany);
+	}
+
+	@Test
+	public void testGetUserWithAlbums_IsSuccessfull() throws Exception {
+		User expectedUser = buildUser(1);
+		Album album1 = new Album(1, 1, "mock title 1");
+		Album album2 = new Album(2, 2, "mock title 2");
+		Album album3 = new Album(1, 3, "mock title 3");
+		Mockito.when(userService.getUserById(1)).thenReturn(expectedUser);
+		Mockito.when(albumService.getAlbums()).thenReturn(List.of(album1, album2, album3));
+
+		assertEquals(new UserAlbums(expectedUser, List.of(album1, album3)), userAlbumsService.getUserWithAlbums(1));
+	}
+
+	@Test
+	public void testGetUsersWithAlbums_IsSuccessfull() throws Exception {
+		User user1 = buildUser(1);
+		User user2 = buildUser(2);
+		Album album1 = new Album(1, 1, "mock title 1");
+		Album album2 = new Album(1, 2, "mock title 2");
+		Mockito.when(userService.getUsers()).thenReturn(List.of(user1, user2));
+		Mockito.when(albumService.getAlbums()).thenReturn(List.of(album1, album2));
+
+		assertEquals(List.of(new UserAlbums(user1, List.of(album1, album2)), new UserAlbums(user2, List.of())),
+				userAlbumsService.getUsersWithAlbums());
+	}
+
+	@Test
+	public void testGetUserWithAlbums_BodyIsEmpty_ExceptionIsThrown() throws Exception {
+		Mockito.when(userService.getUserById(1)).thenThrow(new ApiResponseNotValidException("empty"));
+		Mockito.lenient().when(albumService.getAlbums()).thenReturn(List.of());
+
+		assertThrows(ApiResponseNotValidException.class, () -> userAlbumsService.getUserWithAlbums(1));
+	}
+
+	@Test
+	public void testGetUserWithAlbums_UserIsReadOnTheCallingThread() throws Exception {
+		Thread caller = Thread.currentThread();
+		Mockito.when(userService.getUserById(1)).thenAnswer(invocation -> {
+			assertSame(caller, Thread.currentThread());
+			return buildUser(1);
+		});
+		Mockito.when(albumService.getAlbums()).thenAnswer(invocation -> {
+			assertNotSame(caller, Thread.currentThread());
+			return List.of();
+		});
+
+		assertEquals(new UserAlbums(buildUser(1), List.of()), userAlbumsService.getUserWithAlbums(1));
+	}
+
+}
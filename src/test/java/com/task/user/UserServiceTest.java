@@ -6,16 +6,34 @@ import static org.mockito.Mockito.verify;
 import java.net.URI;
 
 import org.assertj.core.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.client.Hedger;
+import com.task.client.SingleFlight;
+import com.task.client.UpstreamGuard;
+import com.task.config.HedgingProperties;
+import com.task.config.HttpClientProperties;
+import com.task.exception.ErrorMetrics;
+import com.task.snapshot.EntitySnapshots;
+import com.task.storage.LocalEntityReader;
+import com.task.tracing.PhaseTracer;
+
+import brave.Tracing;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -23,18 +41,48 @@ public class UserServiceTest {
 	@InjectMocks
 	private UserService userService;
 
+	@Mock
+	private LocalEntityReader localEntityReader;
+
 	@Mock
 	private RestTemplate restTemplate;
 
+	@Spy
+	private HttpClientProperties httpClientProperties = new HttpClientProperties();
+
 	@Mock
 	private ObjectMapper mockMapper;
 
+	@Spy
+	private SingleFlight singleFlight = new SingleFlight();
+
+	private final Hedger hedger = new Hedger(new HedgingProperties(), new SimpleMeterRegistry());
+
+	@Spy
+	private UpstreamGuard upstreamGuard = new UpstreamGuard(CircuitBreakerRegistry.ofDefaults(),
+			BulkheadRegistry.ofDefaults(), RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), hedger,
+			new SimpleMeterRegistry());
+
+	@Spy
+	private ErrorMetrics errorMetrics = new ErrorMetrics(new SimpleMeterRegistry());
+
+	@Spy
+	private PhaseTracer phaseTracer = new PhaseTracer(Tracing.newBuilder().build().tracer());
+
+	@Spy
+	private EntitySnapshots entitySnapshots = new EntitySnapshots();
+
 	private User buildUser(Integer id) {
 		Address expectedAddress = new Address("street", "suite", "city", "zipcode");
 		Company expectedCompany = new Company("companyName", "catchPhrase", "bs");
 		return new User(id, "name", "username", "email", expectedAddress, "phone", "website", expectedCompany);
 	}
 
+	@AfterEach
+	public void shutdown() {
+		hedger.shutdown();
+	}
+
 	@Test
 	public void testGetUsers_IsSuccessfull() throws Exception {
 		User[] userArray = { buildUser(1), buildUser(2), buildUser(3) };